@@ -0,0 +1,96 @@
+package com.isb.lunarhex.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.isb.lunarhex.core.BoardCorpus;
+
+/**
+ * The corpus benchmark measures mapping the board corpus and finding the
+ * boards of each solution length as done by the main view on startup, and
+ * decoding a picked board. Reading, splitting and bucketing the text board
+ * file the corpus replaced is measured alongside as the baseline.
+ *
+ * @author Ian Baker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorpusBenchmark
+{
+    /**
+     * The mapped board corpus
+     */
+    private BoardCorpus corpus;
+
+    /**
+     * The index of the next board to decode
+     */
+    private int next;
+
+    /**
+     * Maps the board corpus once for the decoding benchmarks.
+     *
+     * @throws  IOException if the board corpus could not be mapped
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        corpus = ShippedBoards.corpus();
+    }
+
+    /**
+     * Maps the board corpus and finds the first board of each solution length.
+     *
+     * @return  The index of the board after the longest solutions
+     * @throws  IOException if the board corpus could not be mapped
+     */
+    @Benchmark
+    public int open() throws IOException
+    {
+        BoardCorpus opened = ShippedBoards.corpus();
+        int end = 0;
+        for (int moves = 1; moves <= BoardCorpus.MAX_MOVES + 1; moves++) end = opened.first(moves);
+        return end;
+    }
+
+    /**
+     * Reads the main board file and the text board file, and buckets the text
+     * boards by solution length as the main view did before the corpus.
+     *
+     * @return  The bucketed boards
+     * @throws  IOException if the board files could not be read
+     */
+    @Benchmark
+    public List<List<String>> loadText() throws IOException
+    {
+        return ShippedBoards.bucket(ShippedBoards.readLine("boards_main.txt"), ShippedBoards.readResource(ShippedBoards.TEXT_BOARDS));
+    }
+
+    /**
+     * Decodes the solution of the next board.
+     *
+     * @return  The board states of the solution
+     */
+    @Benchmark
+    public long[] solution()
+    {
+        next = (next + 1) % corpus.size();
+        return corpus.solution(next);
+    }
+}
@@ -0,0 +1,304 @@
+package com.isb.lunarhex.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.isb.lunarhex.core.BoardState;
+import com.isb.lunarhex.core.CompressedBoard;
+import com.isb.lunarhex.core.StateIndex;
+
+/**
+ * The engine benchmark measures the board engine hot paths used while playing,
+ * each once with the original String engine and once with the packed engine.
+ * Every invocation runs over the same sample of boards from the small set so
+ * the scores are operations per millisecond over a representative mix.
+ *
+ * @author Ian Baker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark
+{
+    /**
+     * The number of boards sampled from the small set
+     */
+    private static final int SAMPLE = 256;
+
+    /**
+     * The sampled boards in compressed format
+     */
+    private String[] compressedBoards;
+
+    /**
+     * The sampled boards in String format
+     */
+    private String[] stringBoards;
+
+    /**
+     * The sampled boards in String format after the first solution move
+     */
+    private String[] stringNextBoards;
+
+    /**
+     * The sampled packed boards
+     */
+    private long[] packedBoards;
+
+    /**
+     * The sampled packed boards after the first solution move
+     */
+    private long[] packedNextBoards;
+
+    /**
+     * The first solution move of each sampled board
+     */
+    private int[] moves;
+
+    /**
+     * The index of the red piece of each sampled board
+     */
+    private int[] selected;
+
+    /**
+     * The number of pieces of each sampled board
+     */
+    private int[] pieces;
+
+    /**
+     * The dense index of each sampled board among the colored states with as many pieces
+     */
+    private int[] ranks;
+
+    /**
+     * Samples evenly spaced boards across the small set.
+     *
+     * @throws  IOException if the board corpus could not be mapped
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        String[] boards = ShippedBoards.compressed(ShippedBoards.corpus());
+        compressedBoards = new String[SAMPLE];
+        stringBoards = new String[SAMPLE];
+        stringNextBoards = new String[SAMPLE];
+        packedBoards = new long[SAMPLE];
+        packedNextBoards = new long[SAMPLE];
+        moves = new int[SAMPLE];
+        selected = new int[SAMPLE];
+        pieces = new int[SAMPLE];
+        ranks = new int[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            String board = boards[(int) ((long) i * boards.length / SAMPLE)];
+            compressedBoards[i] = board;
+            moves[i] = CompressedBoard.move(board, 0);
+            stringBoards[i] = StringBoard.convertCompressedBoard(board);
+            stringNextBoards[i] = StringBoard.getBoardAfterMove(stringBoards[i], moves[i]);
+            packedBoards[i] = CompressedBoard.board(board);
+            packedNextBoards[i] = BoardState.afterMove(packedBoards[i], moves[i]);
+            selected[i] = BoardState.position(packedBoards[i], 0);
+            pieces[i] = BoardState.pieceCount(packedBoards[i]);
+            ranks[i] = StateIndex.rank(packedBoards[i]);
+        }
+    }
+
+    /**
+     * Converts the compressed boards with the String engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void convertCompressedBoardString(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(StringBoard.convertCompressedBoard(compressedBoards[i]));
+        }
+    }
+
+    /**
+     * Converts the compressed boards with the packed engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void convertCompressedBoardPacked(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(CompressedBoard.board(compressedBoards[i]));
+        }
+    }
+
+    /**
+     * Performs the first solution move with the String engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void boardAfterMoveString(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(StringBoard.getBoardAfterMove(stringBoards[i], moves[i]));
+        }
+    }
+
+    /**
+     * Performs the first solution move with the packed engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void boardAfterMovePacked(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(BoardState.afterMove(packedBoards[i], moves[i]));
+        }
+    }
+
+    /**
+     * Finds the path and path end indices of the red piece with the String engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void pathIndicesString(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(StringBoard.getPathIndices(stringBoards[i], selected[i]));
+        }
+    }
+
+    /**
+     * Finds the path and path end masks of the red piece with the packed engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void pathIndicesPacked(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(BoardState.pathMask(packedBoards[i], selected[i]));
+            blackhole.consume(BoardState.stopMask(packedBoards[i], selected[i]));
+        }
+    }
+
+    /**
+     * Finds the start and end index of the moved piece with the String engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void moveIndicesString(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(StringBoard.getMoveIndices(stringBoards[i], stringNextBoards[i]));
+        }
+    }
+
+    /**
+     * Finds the start and end index of the moved piece with the packed engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void moveIndicesPacked(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            int piece = BoardState.movedPiece(packedBoards[i], packedNextBoards[i]);
+            blackhole.consume(BoardState.position(packedBoards[i], piece));
+            blackhole.consume(BoardState.position(packedNextBoards[i], piece));
+        }
+    }
+
+    /**
+     * Parses and replays the solutions with the String engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void parseSolutionString(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(StringBoard.parseSolution(compressedBoards[i]));
+        }
+    }
+
+    /**
+     * Parses and replays the solutions with the packed engine.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void parseSolutionPacked(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(CompressedBoard.solution(compressedBoards[i]));
+        }
+    }
+
+    /**
+     * Ranks the packed boards into dense indices keeping the helper colors.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void rankStatePacked(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(StateIndex.rank(packedBoards[i]));
+        }
+    }
+
+    /**
+     * Unranks the dense indices back into the packed boards.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public void unrankStatePacked(Blackhole blackhole)
+    {
+        for (int i = 0; i < SAMPLE; i++)
+        {
+            blackhole.consume(StateIndex.unrank(pieces[i], ranks[i]));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.isb.lunarhex.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.isb.lunarhex.core.BoardCorpus;
+import com.isb.lunarhex.core.CompressedBoard;
+import com.isb.lunarhex.core.Layout;
+import com.isb.lunarhex.core.LongIntMap;
+
+/**
+ * The shipped boards class loads the main board file from the raw resources
+ * directory and maps the board corpus from the assets directory the same way
+ * the main view does on startup. The text board file the corpus was converted
+ * from is kept as a resource of the benchmarks, so loading it the way the main
+ * view used to can still be measured against the corpus. The methods are
+ * static and the class should not need to be constructed.
+ *
+ * @author Ian Baker
+ */
+public class ShippedBoards
+{
+    /**
+     * System property holding the path of the raw resources directory
+     */
+    public static final String RAW_PROPERTY = "lunarhex.raw";
+
+    /**
+     * System property holding the path of the assets directory
+     */
+    public static final String ASSETS_PROPERTY = "lunarhex.assets";
+
+    /**
+     * The raw resources directory used when the system property is not set
+     */
+    private static final String DEFAULT_RAW = "../lunarhex/src/main/res/raw";
+
+    /**
+     * The assets directory used when the system property is not set
+     */
+    private static final String DEFAULT_ASSETS = "../lunarhex/src/main/assets";
+
+    /**
+     * The text board file the corpus was converted from, a resource of the benchmarks
+     */
+    public static final String TEXT_BOARDS = "boards_small.txt";
+
+    /**
+     * Returns the board file from the raw resources directory.
+     *
+     * @param   name - The name of the board file, i.e. boards_main.txt
+     * @return  The board file
+     */
+    public static File file(String name)
+    {
+        return new File(System.getProperty(RAW_PROPERTY, DEFAULT_RAW), name);
+    }
+
+    /**
+     * Reads the single comma separated line of a board file.
+     *
+     * @param   name - The name of the board file, i.e. boards_main.txt
+     * @return  The line of compressed boards
+     * @throws  IOException if the file could not be read
+     */
+    public static String readLine(String name) throws IOException
+    {
+        return readLine(new FileInputStream(file(name)));
+    }
+
+    /**
+     * Reads the single comma separated line of a board file kept as a resource.
+     *
+     * @param   name - The name of the board file, i.e. boards_small.txt
+     * @return  The line of compressed boards
+     * @throws  IOException if the resource is missing or could not be read
+     */
+    public static String readResource(String name) throws IOException
+    {
+        InputStream stream = ShippedBoards.class.getResourceAsStream("/" + name);
+        if (stream == null) throw new FileNotFoundException(name);
+        return readLine(stream);
+    }
+
+    /**
+     * Reads the single line of a board file stream and closes it.
+     *
+     * @param   stream - The board file stream
+     * @return  The line of compressed boards
+     * @throws  IOException if the stream could not be read
+     */
+    private static String readLine(InputStream stream) throws IOException
+    {
+        BufferedReader input = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+        try
+        {
+            return input.readLine();
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Memory maps the board corpus from the assets directory.
+     *
+     * @return  The board corpus
+     * @throws  IOException if the corpus could not be mapped
+     */
+    public static BoardCorpus corpus() throws IOException
+    {
+        return BoardCorpus.map(new File(System.getProperty(ASSETS_PROPERTY, DEFAULT_ASSETS), BoardCorpus.FILE_NAME));
+    }
+
+    /**
+     * Returns every board of the corpus in compressed format.
+     *
+     * @param   corpus - The board corpus
+     * @return  The compressed boards in the order of the corpus
+     */
+    public static String[] compressed(BoardCorpus corpus)
+    {
+        String[] boards = new String[corpus.size()];
+        for (int i = 0; i < boards.length; i++) boards[i] = CompressedBoard.encode(corpus.solution(i));
+        return boards;
+    }
+
+    /**
+     * Returns the starting board states of the corpus boards taking the number of moves.
+     *
+     * @param   corpus - The board corpus
+     * @param   moves - The number of moves to solve
+     * @return  The packed board states
+     */
+    public static long[] bucket(BoardCorpus corpus, int moves)
+    {
+        int first = corpus.first(moves);
+        long[] boards = new long[corpus.first(moves + 1) - first];
+        for (int i = 0; i < boards.length; i++) boards[i] = corpus.state(first + i);
+        return boards;
+    }
+
+    /**
+     * Splits the text board lines and buckets the small set by the number of moves
+     * to solve, skipping boards with the canonical layout of an earlier board, as
+     * the main view did before the corpus.
+     *
+     * @param   mainBoardString - The line of the main board file
+     * @param   smallBoardString - The line of the text board file
+     * @return  List of boards for each solution length, index 0 = 1 move
+     */
+    public static List<List<String>> bucket(String mainBoardString, String smallBoardString)
+    {
+        List<List<String>> boardSet = new ArrayList<List<String>>();
+        for (int i = 0; i < BoardCorpus.MAX_MOVES; i++)
+        {
+            boardSet.add(new ArrayList<String>());
+        }
+        String[] mainBoards = mainBoardString.split(",");
+        String[] smallBoards = smallBoardString.split(",");
+        LongIntMap layouts = new LongIntMap(mainBoards.length + smallBoards.length);
+        for (int i = 0; i < mainBoards.length; i++)
+        {
+            layouts.put(Layout.canonicalOf(CompressedBoard.board(mainBoards[i])), i);
+        }
+        for (int i = 0; i < smallBoards.length; i++)
+        {
+            if (layouts.put(Layout.canonicalOf(CompressedBoard.board(smallBoards[i])), i))
+            {
+                boardSet.get(CompressedBoard.moveCount(smallBoards[i]) - 1).add(smallBoards[i]);
+            }
+        }
+        return boardSet;
+    }
+}
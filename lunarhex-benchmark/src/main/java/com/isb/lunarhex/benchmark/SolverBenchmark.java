@@ -0,0 +1,103 @@
+package com.isb.lunarhex.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.isb.lunarhex.core.BidirectionalSolver;
+import com.isb.lunarhex.core.BreadthFirstSolver;
+import com.isb.lunarhex.core.IterativeDeepeningSolver;
+import com.isb.lunarhex.core.Solver;
+
+/**
+ * The solver benchmark measures the average time to solve the boards of the
+ * small set with a given number of moves, as done when asking for a hint away
+ * from the stored solution.
+ *
+ * @author Ian Baker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark
+{
+    /**
+     * The name of the solver to measure
+     */
+    @Param({"bfs", "bidirectional", "idastar"})
+    public String solverName;
+
+    /**
+     * The number of moves to solve the measured boards
+     */
+    @Param({"5", "10", "15", "20"})
+    public int moves;
+
+    /**
+     * The solver to measure
+     */
+    private Solver solver;
+
+    /**
+     * The packed boards with the number of moves to solve
+     */
+    private long[] boards;
+
+    /**
+     * The index of the next board to solve
+     */
+    private int next;
+
+    /**
+     * Loads the boards with the number of moves to solve.
+     *
+     * @throws  IOException if the board corpus could not be mapped
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        solver = create(solverName);
+        boards = ShippedBoards.bucket(ShippedBoards.corpus(), moves);
+    }
+
+    /**
+     * Solves the next board of the bucket.
+     *
+     * @param   blackhole - Consumes the results
+     */
+    @Benchmark
+    public void solve(Blackhole blackhole)
+    {
+        blackhole.consume(solver.solve(boards[next]));
+        next = (next + 1) % boards.length;
+    }
+
+    /**
+     * Returns the solver with the given name.
+     *
+     * @param   name - The name of the solver
+     * @return  The solver
+     */
+    private static Solver create(String name)
+    {
+        if (name.equals("bfs")) return new BreadthFirstSolver();
+        if (name.equals("bidirectional")) return new BidirectionalSolver();
+        if (name.equals("idastar")) return new IterativeDeepeningSolver();
+        throw new IllegalArgumentException("Unknown solver: " + name);
+    }
+}
@@ -0,0 +1,298 @@
+package com.isb.lunarhex.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The String board class is a copy of the original board engine which kept
+ * the board as a String of the format R-#,G-#,B-#,Y-#,O-#,P-#. It is kept as
+ * the baseline the packed engine is measured against, with the Android point
+ * replaced by an int pair so it runs on the desktop. The methods are static
+ * and the class should not need to be constructed.
+ *
+ * @author Ian Baker
+ */
+public class StringBoard
+{
+    /**
+     * Converts the compressed board format into the format used in game.
+     *
+     * @param	compressedBoard - Boards of the format M...RGBYOP
+     * @return	Board in format used by game i.e. R-#,G-#,B-#,Y-#,O-#,P-#
+     */
+    public static String convertCompressedBoard(String compressedBoard)
+    {
+        int skip = Integer.parseInt(String.valueOf(compressedBoard.charAt(0)), 36);
+        String R, G, B = "", Y = "", O = "", P = "";
+        R = String.valueOf(compressedBoard.charAt(skip + 1));
+        G = String.valueOf(compressedBoard.charAt(skip + 2));
+        if (compressedBoard.length() > skip + 3) B = String.valueOf(compressedBoard.charAt(skip + 3));
+        if (compressedBoard.length() > skip + 4) Y = String.valueOf(compressedBoard.charAt(skip + 4));
+        if (compressedBoard.length() > skip + 5) O = String.valueOf(compressedBoard.charAt(skip + 5));
+        if (compressedBoard.length() > skip + 6) P = String.valueOf(compressedBoard.charAt(skip + 6));
+        String gameFormatBoard = "R-" + Integer.parseInt(R, 36) + ",G-" + Integer.parseInt(G, 36);
+        if (compressedBoard.length() > skip + 3) gameFormatBoard += ",B-" + Integer.parseInt(B, 36);
+        if (compressedBoard.length() > skip + 4) gameFormatBoard += ",Y-" + Integer.parseInt(Y, 36);
+        if (compressedBoard.length() > skip + 5) gameFormatBoard += ",O-" + Integer.parseInt(O, 36);
+        if (compressedBoard.length() > skip + 6) gameFormatBoard += ",P-" + Integer.parseInt(P, 36);
+        return gameFormatBoard;
+    }
+
+    /**
+     * Returns a vector of the indices to simulate the movement between the boards.
+     *
+     * @param	startBoard - The starting board state
+     * @param	endBoard - The ending board state
+     * @return	Vector of integer indices where 0 = start, 1 = end
+     */
+    public static List<Integer> getMoveIndices(String startBoard, String endBoard)
+    {
+        String[] pairs = startBoard.split(",");
+        List<String[]> startPieces = new ArrayList<String[]>();
+        int i;
+        for (i = 0; i < pairs.length; i++)
+        {
+            String[] pair = new String[2];
+            pair[0] = pairs[i].split("-")[0];
+            pair[1] = pairs[i].split("-")[1];
+            startPieces.add(pair);
+        }
+        pairs = endBoard.split(",");
+        List<String[]> endPieces = new ArrayList<String[]>();
+        for (i = 0; i < pairs.length; i++)
+        {
+            String[] pair = new String[2];
+            pair[0] = pairs[i].split("-")[0];
+            pair[1] = pairs[i].split("-")[1];
+            endPieces.add(pair);
+        }
+        for (i = 0; i < startPieces.size(); i++)
+        {
+            if (!startPieces.get(i)[1].equals(endPieces.get(i)[1]))
+            {
+                List<Integer> result = new ArrayList<Integer>();
+                result.add(Integer.parseInt(startPieces.get(i)[1]));
+                result.add(Integer.parseInt(endPieces.get(i)[1]));
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the board state after preforming the given move.
+     *
+     * @param	board - The initial board state
+     * @param	move - The move 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL, 0-5 = Red, 6-11 = Green etc.
+     * @return	The board state after the given move has happened
+     */
+    public static String getBoardAfterMove(String board, int move)
+    {
+        String[] pairs = board.split(",");
+        List<String[]> pieces = new ArrayList<String[]>();
+        for (int i = 0; i < pairs.length; i++)
+        {
+            String[] pair = pairs[i].split("-");
+            pieces.add(pair);
+        }
+        int dir = move % 6;
+        int color = move / 6;
+        int[] new_coordinates;
+        String new_board = "";
+
+        // Move piece in one direction until hit object or falls outside of board
+        new_coordinates = getCoordinatesFromIndex(Integer.parseInt(pieces.get(color)[1]));
+        new_coordinates = moveCoordinate(new_coordinates, dir);
+        int moves = 1;
+        while (getIndexFromCoordinates(new_coordinates) != -1)
+        {
+            if (pieceAtIndex(getIndexFromCoordinates(new_coordinates), board))
+            {
+                if (2 <= moves)
+                {
+                    // Move in opposite direction (just before collision)
+                    if (dir == 0) new_coordinates = moveCoordinate(new_coordinates, 1);
+                    if (dir == 1) new_coordinates = moveCoordinate(new_coordinates, 0);
+                    if (dir == 2) new_coordinates = moveCoordinate(new_coordinates, 5);
+                    if (dir == 3) new_coordinates = moveCoordinate(new_coordinates, 4);
+                    if (dir == 4) new_coordinates = moveCoordinate(new_coordinates, 3);
+                    if (dir == 5) new_coordinates = moveCoordinate(new_coordinates, 2);
+                    // Generate new valid board
+                    for (int j = 0; j < pieces.size(); j++)
+                    {
+                        if (j > 0) new_board += ",";
+                        if (color == j) new_board += pieces.get(j)[0] + "-" + String.valueOf(getIndexFromCoordinates(new_coordinates));
+                        else new_board += pieces.get(j)[0] + "-" + pieces.get(j)[1];
+                    }
+                    return new_board;
+                }
+                else break;
+            }
+            new_coordinates = moveCoordinate(new_coordinates, dir);
+            moves++;
+        }
+        return new_board;
+    }
+
+    /**
+     * Returns the list of hexagon indices along the paths of the selected piece.
+     *
+     * @param	board - The board state
+     * @param	selected_hex_index - The index of the selected piece
+     * @return	List of the path indices followed by the list of the path end indices
+     */
+    public static List<List<Integer>> getPathIndices(String board, int selected_hex_index)
+    {
+        List<List<Integer>> pathIndices = new ArrayList<List<Integer>>();
+        pathIndices.add(new ArrayList<Integer>());
+        pathIndices.add(new ArrayList<Integer>());
+        int[] new_coordinates;
+        int moves;
+        for (int dir = 0; dir < 6; dir++)
+        {
+            // Move piece in one direction until hit object or falls outside of board
+            new_coordinates = getCoordinatesFromIndex(selected_hex_index);
+            new_coordinates = moveCoordinate(new_coordinates, dir);
+            moves = 1;
+            while (getIndexFromCoordinates(new_coordinates) != -1)
+            {
+                if (pieceAtIndex(getIndexFromCoordinates(new_coordinates), board))
+                {
+                    if (2 <= moves)
+                    {
+                        // Move in opposite direction (just before collision)
+                        if (dir == 0) new_coordinates = moveCoordinate(new_coordinates, 1);
+                        if (dir == 1) new_coordinates = moveCoordinate(new_coordinates, 0);
+                        if (dir == 2) new_coordinates = moveCoordinate(new_coordinates, 5);
+                        if (dir == 3) new_coordinates = moveCoordinate(new_coordinates, 4);
+                        if (dir == 4) new_coordinates = moveCoordinate(new_coordinates, 3);
+                        if (dir == 5) new_coordinates = moveCoordinate(new_coordinates, 2);
+                        pathIndices.get(1).add(getIndexFromCoordinates(new_coordinates));
+                        break;
+                    }
+                    else break;
+                }
+                pathIndices.get(0).add(getIndexFromCoordinates(new_coordinates));
+                new_coordinates = moveCoordinate(new_coordinates, dir);
+                moves++;
+            }
+        }
+        // Remove indices from those along the path that are the path end (no duplicates)
+        for (int i = pathIndices.get(0).size() - 1; i >= 0; i--)
+        {
+            if (pathIndices.get(1).indexOf(pathIndices.get(0).get(i)) != -1) pathIndices.get(0).remove(i);
+        }
+        return pathIndices;
+    }
+
+    /**
+     * Parses the compressed format board and replays the solution for the board.
+     *
+     * @param	compressedBoard - The board in compressed format
+     * @return	The board states from the start to the solved board
+     */
+    public static List<String> parseSolution(String compressedBoard)
+    {
+        int shortestMoves = Integer.parseInt(String.valueOf(compressedBoard.charAt(0)), 36);
+        List<Integer> encodedMoves = new ArrayList<Integer>();
+        int i;
+        for (i = 1; i <= shortestMoves; i++)
+        {
+            encodedMoves.add(Integer.parseInt(String.valueOf(compressedBoard.charAt(i)), 36));
+        }
+        List<String> solution = new ArrayList<String>();
+        String next = convertCompressedBoard(compressedBoard);
+        solution.add(next);
+        for (i = 0; i < encodedMoves.size(); i++)
+        {
+            next = getBoardAfterMove(next, encodedMoves.get(i));
+            solution.add(next);
+        }
+        return solution;
+    }
+
+    /**
+     * Returns whether a piece exists at the specified coordinates.
+     *
+     * @param	index - The index to check
+     * @param	board_state - The state of the board to check
+     * @return	Whether a piece exists
+     */
+    public static Boolean pieceAtIndex(int index, String board_state)
+    {
+        String[] pairs = board_state.split(",");
+        for (int i = 0; i < pairs.length; i++)
+        {
+            if (index == Integer.parseInt(pairs[i].split("-")[1])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the coordinate moved one hexagon in the given direction.
+     *
+     * @param	coordinate - X/Y coordinates
+     * @param	direction - 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     * @return	The new X/Y coordinates
+     */
+    private static int[] moveCoordinate(int[] coordinate, int direction)
+    {
+        int[] newCoordinate = {coordinate[0], coordinate[1]};
+        switch (direction)
+        {
+            case 0: // Up 			Y-1
+                newCoordinate[1]--;
+                break;
+            case 1: // Down 		Y+1
+                newCoordinate[1]++;
+                break;
+            case 2: // Up-right 	X-even? X+1 : X+1 Y-1
+                newCoordinate[0]++;
+                if (coordinate[0] % 2 != 0) newCoordinate[1]--;
+                break;
+            case 3: // Up-left 		X-even? X-1 : X-1 Y-1
+                newCoordinate[0]--;
+                if (coordinate[0] % 2 != 0) newCoordinate[1]--;
+                break;
+            case 4: // Down-right	X-odd? X+1 : X+1 Y+1
+                newCoordinate[0]++;
+                if (coordinate[0] % 2 != 1) newCoordinate[1]++;
+                break;
+            case 5: // Down-left	x-odd? X-1 : X-1 Y+1
+                newCoordinate[0]--;
+                if (coordinate[0] % 2 != 1) newCoordinate[1]++;
+                break;
+            default:
+                break;
+        }
+        return newCoordinate;
+    }
+
+    /**
+     * Gets the X/Y index coordinates of the hexagon, Zero-based.
+     *
+     * @param	index - The index of the hexagon in the list
+     * @return	The X/Y index coordinates of the hexagon
+     */
+    private static int[] getCoordinatesFromIndex(int index)
+    {
+        if (index == 26) return new int[] {3, 5};
+        if (index == 25) return new int[] {1, 5};
+        if (0 <= index && index <= 24) return new int[] {index % 5, index / 5};
+        return null;
+    }
+
+    /**
+     * Gets the index of the hexagon in the list from the X/Y index coordinates.
+     *
+     * @param	coordinates - The X/Y index coordinates of the hexagon
+     * @return	The index of the hexagon in the list
+     */
+    private static int getIndexFromCoordinates(int[] coordinates)
+    {
+        if (coordinates[0] == 3 && coordinates[1] == 5) return 26;
+        if (coordinates[0] == 1 && coordinates[1] == 5) return 25;
+        if (0 <= coordinates[0] && coordinates[0] < 5 && 0 <= coordinates[1] && coordinates[1] < 5) return (coordinates[1] * 5) + coordinates[0];
+        return -1;
+    }
+}
@@ -0,0 +1,374 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The bidirectional solver finds a shortest move sequence by searching forward
+ * from the board and backward from every layout with red on the center, one
+ * whole layer at a time on whichever side has the smaller frontier. Backward
+ * steps undo a slide as found by Layout.previous.
+ *
+ * The goal side starts as the set of all solved layouts, which is large, so it
+ * is only filled in once the forward frontier grows past it. Until then a
+ * solved layout found going forward counts as meeting the goal side.
+ *
+ * @author Ian Baker
+ */
+public class BidirectionalSolver implements Solver
+{
+    /**
+     * Constants
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int LOW_CELLS = (1 << BoardState.CENTER) - 1;
+
+    /**
+     * The layouts reached from the board, linked to the layout they were reached from
+     */
+    private final Side forward;
+
+    /**
+     * The layouts reaching a solved layout, linked to the layout they lead to
+     */
+    private final Side backward;
+
+    /**
+     * The layouts leading to the layout being expanded on the goal side
+     */
+    private final long[] previous;
+
+    /**
+     * The number of layouts expanded by the last search
+     */
+    private int nodes;
+
+    /**
+     * The queue index on each side of the best meeting layout found, -1 for an implicit goal
+     */
+    private int meetForward;
+    private int meetBackward;
+
+    /**
+     * The number of moves through the best meeting layout found
+     */
+    private int meetLength;
+
+    /**
+     * Constructor for the solver.
+     */
+    public BidirectionalSolver()
+    {
+        forward = new Side();
+        backward = new Side();
+        previous = new long[Layout.MAX_PREVIOUS];
+    }
+
+    /**
+     * Finds a shortest sequence of moves that solves the board.
+     *
+     * @param   state - The packed board state
+     * @return  The board states from the given state to the solved board or null if not solvable
+     */
+    @Override
+    public long[] solve(long state)
+    {
+        nodes = 0;
+        forward.clear();
+        backward.clear();
+        long start = Layout.of(state);
+        if (Layout.isSolved(start)) return new long[] {state};
+        int pieces = Integer.bitCount(Layout.occupancy(start));
+        int goals = binomial(BoardState.CELLS - 1, pieces - 1);
+        boolean seeded = false;
+        forward.add(start, -1, 0);
+        forward.nextLayer();
+        meetLength = Integer.MAX_VALUE;
+        while (meetLength == Integer.MAX_VALUE)
+        {
+            int forwardSize = forward.layerSize();
+            int backwardSize = seeded ? backward.layerSize() : goals;
+            if (forwardSize == 0 || backwardSize == 0) return null;
+            if (forwardSize <= backwardSize)
+            {
+                expandForward(seeded);
+            }
+            else if (!seeded)
+            {
+                seedGoals(pieces);
+                seeded = true;
+            }
+            else
+            {
+                expandBackward();
+            }
+        }
+        return path(state);
+    }
+
+    /**
+     * Returns the number of layouts expanded by the last search.
+     *
+     * @return  The number of expanded layouts
+     */
+    @Override
+    public int nodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Expands the last layer of the forward side by every legal slide.
+     *
+     * @param   seeded - Whether the goal side holds the solved layouts
+     */
+    private void expandForward(boolean seeded)
+    {
+        int end = forward.size;
+        for (int i = forward.layerStart; i < end; i++)
+        {
+            long layout = forward.queue[i];
+            int depth = forward.depths[i] + 1;
+            nodes++;
+            int pieces = Layout.occupancy(layout);
+            while (pieces != 0)
+            {
+                int index = Integer.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                for (int dir = 0; dir < BoardState.DIRECTIONS; dir++)
+                {
+                    long next = Layout.slide(layout, index, dir);
+                    if (next == BoardState.INVALID) continue;
+                    int added = forward.add(next, i, depth);
+                    if (added == -1) continue;
+                    if (Layout.isSolved(next) && !seeded)
+                    {
+                        meet(added, -1, depth);
+                    }
+                    else
+                    {
+                        int other = backward.indexOf(next);
+                        if (other != -1) meet(added, other, depth + backward.depths[other]);
+                    }
+                }
+            }
+        }
+        forward.nextLayer();
+    }
+
+    /**
+     * Expands the last layer of the goal side by every slide that could have led to it.
+     */
+    private void expandBackward()
+    {
+        int end = backward.size;
+        for (int i = backward.layerStart; i < end; i++)
+        {
+            long layout = backward.queue[i];
+            int depth = backward.depths[i] + 1;
+            nodes++;
+            int count = Layout.previous(layout, previous);
+            for (int j = 0; j < count; j++)
+            {
+                int added = backward.add(previous[j], i, depth);
+                if (added == -1) continue;
+                int other = forward.indexOf(previous[j]);
+                if (other != -1) meet(other, added, depth + forward.depths[other]);
+            }
+        }
+        backward.nextLayer();
+    }
+
+    /**
+     * Adds every solved layout with the number of pieces as the first layer of the goal side.
+     *
+     * @param   pieces - The number of pieces on the board
+     */
+    private void seedGoals(int pieces)
+    {
+        // Choose the helper hexagons among the cells other than the center with Gosper's hack
+        int cells = BoardState.CELLS - 1;
+        int helpers = pieces - 1;
+        int combination = (1 << helpers) - 1;
+        while (combination < (1 << cells))
+        {
+            int occupancy = (combination & LOW_CELLS) | ((combination & ~LOW_CELLS) << 1) | (1 << BoardState.CENTER);
+            backward.add(Layout.create(BoardState.CENTER, occupancy), -1, 0);
+            if (combination == 0) break;
+            int lowest = combination & -combination;
+            int ripple = combination + lowest;
+            combination = (((ripple ^ combination) >>> 2) / lowest) | ripple;
+        }
+        backward.nextLayer();
+    }
+
+    /**
+     * Keeps the meeting layout if it gives a shorter path than the best found.
+     *
+     * @param   forwardIndex - The queue index of the layout on the forward side
+     * @param   backwardIndex - The queue index of the layout on the goal side or -1 if solved
+     * @param   length - The number of moves through the meeting layout
+     */
+    private void meet(int forwardIndex, int backwardIndex, int length)
+    {
+        if (length < meetLength)
+        {
+            meetForward = forwardIndex;
+            meetBackward = backwardIndex;
+            meetLength = length;
+        }
+    }
+
+    /**
+     * Joins the two sides at the meeting layout and replays it as colored board states.
+     *
+     * @param   state - The packed board state the search started from
+     * @return  The board states from the given state to the solved board
+     */
+    private long[] path(long state)
+    {
+        long[] layouts = new long[meetLength + 1];
+        int j = forward.depths[meetForward];
+        long meeting = forward.queue[meetForward];
+        for (int i = meetForward; i != -1; i = forward.links[i], j--) layouts[j] = forward.queue[i];
+        if (meetBackward != -1)
+        {
+            // The goal side may hold the reflection of the meeting layout
+            boolean mirrored = backward.queue[meetBackward] != meeting;
+            j = forward.depths[meetForward] + 1;
+            for (int i = backward.links[meetBackward]; i != -1; i = backward.links[i], j++)
+            {
+                layouts[j] = mirrored ? Layout.mirror(backward.queue[i]) : backward.queue[i];
+            }
+        }
+        return Layout.replay(state, layouts);
+    }
+
+    /**
+     * Returns the number of ways to choose k of n items.
+     *
+     * @param   n - The number of items
+     * @param   k - The number of items chosen
+     * @return  The binomial coefficient
+     */
+    private static int binomial(int n, int k)
+    {
+        long result = 1;
+        for (int i = 1; i <= k; i++) result = (result * (n - k + i)) / i;
+        return (int) result;
+    }
+
+    /**
+     * One side of the search, the layouts in the order they were reached with a link to
+     * the layout they were expanded from and their distance from the side's start.
+     */
+    private static class Side
+    {
+        /**
+         * The layouts in the order they were reached
+         */
+        long[] queue = new long[INITIAL_CAPACITY];
+
+        /**
+         * The queue index of the layout each layout was expanded from or -1
+         */
+        int[] links = new int[INITIAL_CAPACITY];
+
+        /**
+         * The number of moves from the start of the side to each layout
+         */
+        int[] depths = new int[INITIAL_CAPACITY];
+
+        /**
+         * The queue index of each canonical layout that has been reached
+         */
+        final LongIntMap visited = new LongIntMap(INITIAL_CAPACITY);
+
+        /**
+         * The number of queued layouts
+         */
+        int size;
+
+        /**
+         * The queue index of the first layout in the last layer
+         */
+        int layerStart;
+
+        /**
+         * The queue index after the last layout in the last layer
+         */
+        int layerEnd;
+
+        /**
+         * Empties the side, keeping the capacity.
+         */
+        void clear()
+        {
+            visited.clear();
+            size = 0;
+            layerStart = 0;
+            layerEnd = 0;
+        }
+
+        /**
+         * Queues the layout if its canonical layout has not been reached.
+         *
+         * @param   layout - The layout
+         * @param   link - The queue index of the layout it was expanded from or -1
+         * @param   depth - The number of moves from the start of the side
+         * @return  The queue index of the layout or -1 if already reached
+         */
+        int add(long layout, int link, int depth)
+        {
+            if (!visited.putIfAbsent(Layout.canonical(layout), size)) return -1;
+            if (size == queue.length) grow();
+            queue[size] = layout;
+            links[size] = link;
+            depths[size] = depth;
+            return size++;
+        }
+
+        /**
+         * Returns the queue index of the layout or its reflection.
+         *
+         * @param   layout - The layout
+         * @return  The queue index or -1 if not reached
+         */
+        int indexOf(long layout)
+        {
+            return visited.get(Layout.canonical(layout), -1);
+        }
+
+        /**
+         * Marks the layouts queued since the last call as the last layer.
+         */
+        void nextLayer()
+        {
+            layerStart = layerEnd;
+            layerEnd = size;
+        }
+
+        /**
+         * Returns the number of layouts in the last layer.
+         *
+         * @return  The size of the frontier
+         */
+        int layerSize()
+        {
+            return layerEnd - layerStart;
+        }
+
+        /**
+         * Doubles the capacity of the queue.
+         */
+        private void grow()
+        {
+            long[] newQueue = new long[queue.length * 2];
+            int[] newLinks = new int[links.length * 2];
+            int[] newDepths = new int[depths.length * 2];
+            System.arraycopy(queue, 0, newQueue, 0, size);
+            System.arraycopy(links, 0, newLinks, 0, size);
+            System.arraycopy(depths, 0, newDepths, 0, size);
+            queue = newQueue;
+            links = newLinks;
+            depths = newDepths;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.isb.lunarhex.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The board corpus holds boards with their solutions as fixed width records
+ * ordered by the number of moves to solve them. The file is read through a
+ * buffer, normally memory mapped, so a board is only decoded when it is
+ * picked and neither opening the corpus nor picking a board depends on its
+ * size. Each board takes a 32 byte record: the packed board state as a long,
+ * the number of moves as an unsigned byte and one byte per move, piece * 6 +
+ * direction, padded with zeros up to MAX_MOVES moves and three reserved bytes.
+ *
+ * The file starts with a header of ints, the magic number, the version, the
+ * number of boards and the offset table: the index of the first board taking
+ * each number of moves from 0 to MAX_MOVES + 1, the last being the number of
+ * boards, so the boards taking a range of moves are found with two reads.
+ *
+ * @author Ian Baker
+ */
+public class BoardCorpus
+{
+    /**
+     * Constants
+     */
+    public static final String FILE_NAME = "boards_small.corpus";
+    public static final int MAGIC = 0x4C484243;
+    public static final int VERSION = 2;
+    public static final int MAX_MOVES = 20;
+    public static final int HEADER_BYTES = 12 + ((MAX_MOVES + 2) * 4);
+    public static final int RECORD_BYTES = 32;
+    private static final int OFFSETS_POSITION = 12;
+    private static final int MOVE_COUNT_OFFSET = 8;
+    private static final int MOVES_OFFSET = 9;
+
+    /**
+     * The bytes of the corpus file
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of boards
+     */
+    private final int size;
+
+    /**
+     * Constructor for the corpus.
+     *
+     * @param   buffer - The bytes of the corpus file
+     * @throws  IllegalArgumentException if the bytes are not a corpus of this version
+     */
+    public BoardCorpus(ByteBuffer buffer)
+    {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+        {
+            throw new IllegalArgumentException("Not a board corpus of version " + VERSION);
+        }
+        this.buffer = buffer;
+        size = buffer.getInt(8);
+        if (size < 0 || buffer.capacity() < HEADER_BYTES + ((long) size * RECORD_BYTES))
+        {
+            throw new IllegalArgumentException("Truncated board corpus");
+        }
+        int previous = 0;
+        for (int moves = 0; moves <= MAX_MOVES + 1; moves++)
+        {
+            int offset = buffer.getInt(OFFSETS_POSITION + (moves * 4));
+            if (offset < previous || offset > size || (moves == MAX_MOVES + 1 && offset != size))
+            {
+                throw new IllegalArgumentException("Corrupt board corpus offset table");
+            }
+            previous = offset;
+        }
+    }
+
+    /**
+     * Memory maps the corpus file read only.
+     *
+     * @param   file - The corpus file
+     * @return  The corpus
+     * @throws  IOException if the file could not be mapped
+     */
+    public static BoardCorpus map(File file) throws IOException
+    {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = input.getChannel();
+            return new BoardCorpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Creates an empty corpus for the number of boards taking each number of moves.
+     *
+     * @param   counts - The number of boards taking each number of moves, up to MAX_MOVES
+     * @return  The corpus with every record zero
+     * @throws  IllegalArgumentException if there are counts beyond MAX_MOVES moves
+     */
+    public static BoardCorpus allocate(int[] counts)
+    {
+        if (counts.length > MAX_MOVES + 1) throw new IllegalArgumentException("Too many move counts: " + counts.length);
+        int size = 0;
+        for (int moves = 0; moves < counts.length; moves++) size += counts[moves];
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + (size * RECORD_BYTES));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, size);
+        int offset = 0;
+        for (int moves = 0; moves <= MAX_MOVES + 1; moves++)
+        {
+            buffer.putInt(OFFSETS_POSITION + (moves * 4), offset);
+            if (moves < counts.length) offset += counts[moves];
+        }
+        return new BoardCorpus(buffer);
+    }
+
+    /**
+     * Writes the corpus file.
+     *
+     * @param   file - The corpus file
+     * @throws  IOException if the file could not be written
+     */
+    public void write(File file) throws IOException
+    {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+        {
+            throw new IOException("Could not create " + parent);
+        }
+        byte[] bytes = new byte[HEADER_BYTES + (size * RECORD_BYTES)];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buffer.get(i);
+        OutputStream output = new FileOutputStream(file);
+        try
+        {
+            output.write(bytes);
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    /**
+     * Returns the number of boards.
+     *
+     * @return  The number of boards
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Stores the board and its solution.
+     *
+     * @param   board - The index of the board, among the boards allocated for its number of moves
+     * @param   solution - The board states from the start to the solved board
+     * @throws  IllegalArgumentException if the board index is not allocated for the number of moves
+     */
+    public void set(int board, long[] solution)
+    {
+        int moves = solution.length - 1;
+        if (moves > MAX_MOVES || board < first(moves) || first(moves + 1) <= board)
+        {
+            throw new IllegalArgumentException("Board " + board + " is not allocated for " + moves + " moves");
+        }
+        int position = HEADER_BYTES + (board * RECORD_BYTES);
+        buffer.putLong(position, solution[0]);
+        buffer.put(position + MOVE_COUNT_OFFSET, (byte) moves);
+        for (int i = 1; i <= MAX_MOVES; i++)
+        {
+            int move = (i <= moves) ? BoardState.moveBetween(solution[i - 1], solution[i]) : 0;
+            buffer.put(position + MOVES_OFFSET + i - 1, (byte) move);
+        }
+    }
+
+    /**
+     * Returns the starting board state.
+     *
+     * @param   board - The index of the board
+     * @return  The packed board state
+     */
+    public long state(int board)
+    {
+        return buffer.getLong(HEADER_BYTES + (board * RECORD_BYTES));
+    }
+
+    /**
+     * Returns the number of moves in the solution of the board.
+     *
+     * @param   board - The index of the board
+     * @return  The minimum number of moves to solve the board
+     */
+    public int moveCount(int board)
+    {
+        return buffer.get(HEADER_BYTES + (board * RECORD_BYTES) + MOVE_COUNT_OFFSET) & 0xFF;
+    }
+
+    /**
+     * Returns the encoded move at the given step of the solution.
+     *
+     * @param   board - The index of the board
+     * @param   step - The step of the solution, zero based
+     * @return  The encoded move, piece * 6 + direction
+     */
+    public int move(int board, int step)
+    {
+        return buffer.get(HEADER_BYTES + (board * RECORD_BYTES) + MOVES_OFFSET + step) & 0xFF;
+    }
+
+    /**
+     * Replays the solution of the board.
+     *
+     * @param   board - The index of the board
+     * @return  The board states from the start to the solved board
+     */
+    public long[] solution(int board)
+    {
+        int moves = moveCount(board);
+        long[] solution = new long[moves + 1];
+        solution[0] = state(board);
+        for (int i = 1; i <= moves; i++)
+        {
+            solution[i] = BoardState.afterMove(solution[i - 1], move(board, i - 1));
+        }
+        return solution;
+    }
+
+    /**
+     * Returns the index of the first board that takes at least the number of
+     * moves, read from the offset table.
+     *
+     * @param   moves - The number of moves
+     * @return  The index of the board or the number of boards if every board takes fewer moves
+     */
+    public int first(int moves)
+    {
+        int clamped = Math.max(0, Math.min(moves, MAX_MOVES + 1));
+        return buffer.getInt(OFFSETS_POSITION + (clamped * 4));
+    }
+}
@@ -0,0 +1,153 @@
+package com.isb.lunarhex.core;
+
+import java.util.Random;
+
+/**
+ * The board generator builds fresh random boards whose shortest solution has
+ * a number of moves within a range, in the compressed board format. Pieces
+ * are placed at random and the board is kept only if its proven distance is
+ * in range. The distance database makes each try a single lookup, so even
+ * the rarest twenty move boards are found quickly; without it every try is
+ * solved and only a bounded number of tries are made. Boards can also be
+ * limited to those with a single shortest solution, which is only known
+ * from the distance database. Generating on an interrupted thread gives up,
+ * so a producer thread can be stopped promptly.
+ *
+ * @author Ian Baker
+ */
+public class BoardGenerator
+{
+    /**
+     * Constants
+     */
+    public static final int DATABASE_ATTEMPTS = 1 << 21;
+    public static final int SOLVER_ATTEMPTS = 1 << 10;
+    private static final int INTERRUPT_CHECK_MASK = 255;
+
+    /**
+     * The fewest moves to solve every layout or null if not available
+     */
+    private final DistanceDatabase distances;
+
+    /**
+     * The counter of shortest solutions or null without the distance database
+     */
+    private final OptimalMoves optimalMoves;
+
+    /**
+     * The solver used without the distance database
+     */
+    private final Solver solver;
+
+    /**
+     * The source of random placements
+     */
+    private final Random random;
+
+    /**
+     * The hexagon indices, partly shuffled for each placement
+     */
+    private final int[] cells;
+
+    /**
+     * The piece indices of the placement
+     */
+    private final int[] positions;
+
+    /**
+     * Constructor for the generator.
+     *
+     * @param   distances - The fewest moves to solve every layout or null if not available
+     * @param   random - The source of random placements
+     */
+    public BoardGenerator(DistanceDatabase distances, Random random)
+    {
+        this.distances = distances;
+        this.random = random;
+        optimalMoves = (distances == null) ? null : new OptimalMoves(distances);
+        solver = (distances == null) ? new BreadthFirstSolver() : null;
+        cells = new int[BoardState.CELLS];
+        for (int i = 0; i < cells.length; i++) cells[i] = i;
+        positions = new int[BoardState.MAX_PIECES];
+    }
+
+    /**
+     * Generates a board of all six pieces solvable in the range of moves.
+     *
+     * @param   low - The fewest moves of the shortest solution, at least 1
+     * @param   high - The most moves of the shortest solution
+     * @return  Board of the format M...RGBYOP or null if none was found in the allowed tries or the thread was interrupted
+     */
+    public String generate(int low, int high)
+    {
+        return generate(low, high, false);
+    }
+
+    /**
+     * Generates a board of all six pieces solvable in the range of moves, with
+     * only one shortest solution if asked.
+     *
+     * @param   low - The fewest moves of the shortest solution, at least 1
+     * @param   high - The most moves of the shortest solution
+     * @param   unique - Whether the shortest solution must be the only one, needs the distance database
+     * @return  Board of the format M...RGBYOP or null if none was found in the allowed tries, the thread was interrupted or uniqueness was asked without the distance database
+     */
+    public String generate(int low, int high, boolean unique)
+    {
+        if (unique && optimalMoves == null) return null;
+        int attempts = (distances == null) ? SOLVER_ATTEMPTS : DATABASE_ATTEMPTS;
+        for (int i = 0; i < attempts; i++)
+        {
+            if ((i & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) return null;
+            long state = place(BoardState.MAX_PIECES);
+            if (distances == null)
+            {
+                long[] solution = solver.solve(state);
+                if (solution != null && low <= solution.length - 1 && solution.length - 1 <= high) return CompressedBoard.encode(solution);
+            }
+            else
+            {
+                int distance = distances.distanceOf(state);
+                if (low <= distance && distance <= high && (!unique || optimalMoves.isUnique(state))) return CompressedBoard.encode(solve(state, distance));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Places the pieces on distinct random hexagons.
+     *
+     * @param   pieces - The number of pieces including red
+     * @return  The packed board state
+     */
+    private long place(int pieces)
+    {
+        for (int i = 0; i < pieces; i++)
+        {
+            int j = i + random.nextInt(cells.length - i);
+            int cell = cells[j];
+            cells[j] = cells[i];
+            cells[i] = cell;
+            positions[i] = cell;
+        }
+        return BoardState.create(positions, pieces);
+    }
+
+    /**
+     * Follows the best moves of the distance database to the solved board.
+     *
+     * @param   state - The packed board state
+     * @param   distance - The fewest moves to solve the board
+     * @return  The board states from the given state to the solved board
+     */
+    private long[] solve(long state, int distance)
+    {
+        long[] solution = new long[distance + 1];
+        solution[0] = state;
+        for (int i = 1; i <= distance; i++)
+        {
+            solution[i] = BoardState.afterMove(solution[i - 1], distances.bestMove(solution[i - 1]));
+        }
+        return solution;
+    }
+}
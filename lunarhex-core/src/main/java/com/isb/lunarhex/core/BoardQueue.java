@@ -0,0 +1,279 @@
+package com.isb.lunarhex.core;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The board queue keeps a few ready generated boards for every number of
+ * moves from 1 to 20, so a new board can be taken without waiting on the
+ * generator. A background producer refills the buckets of the selected range
+ * of moves first and the other buckets after, then waits until a board is
+ * taken. Each bucket is a ring buffer of compressed boards. The boards may be
+ * limited to those with a single shortest solution, and a bucket the generator
+ * keeps failing on is given up until that setting changes.
+ *
+ * @author Ian Baker
+ */
+public class BoardQueue implements Runnable
+{
+    /**
+     * Constants
+     */
+    public static final int MAX_MOVES = 20;
+    public static final int DEFAULT_CAPACITY = 4;
+    private static final int MAX_FAILURES = 3;
+
+    /**
+     * The generator used by the producer thread only
+     */
+    private final BoardGenerator generator;
+
+    /**
+     * The source of the bucket picked when taking a board
+     */
+    private final Random random;
+
+    /**
+     * The ring buffer of ready boards of each number of moves
+     */
+    private final String[][] boards;
+
+    /**
+     * The index of the oldest board of each bucket
+     */
+    private final int[] heads;
+
+    /**
+     * The number of ready boards of each bucket
+     */
+    private final int[] sizes;
+
+    /**
+     * The number of times the generator found no board with each number of moves,
+     * buckets that failed too often are not tried again
+     */
+    private final int[] failures;
+
+    /**
+     * The selected range of moves, filled first
+     */
+    private int low;
+    private int high;
+
+    /**
+     * Whether the boards must have a single shortest solution
+     */
+    private boolean unique;
+
+    /**
+     * The producer thread or null when stopped
+     */
+    private Thread thread;
+
+    /**
+     * Constructor for the queue.
+     *
+     * @param   generator - The generator, used only by the producer thread from now on
+     * @param   capacity - The number of ready boards kept for each number of moves
+     */
+    public BoardQueue(BoardGenerator generator, int capacity)
+    {
+        this.generator = generator;
+        random = new Random();
+        boards = new String[MAX_MOVES + 1][capacity];
+        heads = new int[MAX_MOVES + 1];
+        sizes = new int[MAX_MOVES + 1];
+        failures = new int[MAX_MOVES + 1];
+        low = 1;
+        high = MAX_MOVES;
+    }
+
+    /**
+     * Starts the producer thread if it is not running.
+     */
+    public synchronized void start()
+    {
+        if (thread != null) return;
+        thread = new Thread(this, "BoardQueue");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stops the producer thread without waiting for it, the ready boards are kept.
+     * The thread is interrupted so it ends after the current try of the generator,
+     * and a restarted producer waits for that try before using the generator.
+     */
+    public synchronized void stop()
+    {
+        if (thread == null) return;
+        thread.interrupt();
+        thread = null;
+        notifyAll();
+    }
+
+    /**
+     * Selects the range of moves refilled first.
+     *
+     * @param   low - The lowest number of moves acceptable
+     * @param   high - The highest number of moves acceptable
+     */
+    public synchronized void setRange(int low, int high)
+    {
+        this.low = low;
+        this.high = high;
+        notifyAll();
+    }
+
+    /**
+     * Selects whether the boards must have a single shortest solution. Changing it
+     * drops the ready boards and the failures, as they were found for the other
+     * setting.
+     *
+     * @param   unique - Whether the boards must have a single shortest solution
+     */
+    public synchronized void setUniqueSolution(boolean unique)
+    {
+        if (this.unique == unique) return;
+        this.unique = unique;
+        for (int moves = 0; moves <= MAX_MOVES; moves++)
+        {
+            Arrays.fill(boards[moves], null);
+            heads[moves] = 0;
+            sizes[moves] = 0;
+            failures[moves] = 0;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Takes a ready board from a random bucket of the range and selects the range.
+     *
+     * @param   low - The lowest number of moves acceptable
+     * @param   high - The highest number of moves acceptable
+     * @return  Board of the format M...RGBYOP or null if no board in range is ready
+     */
+    public synchronized String poll(int low, int high)
+    {
+        setRange(low, high);
+        int ready = 0;
+        for (int moves = low; moves <= high; moves++)
+        {
+            if (sizes[moves] > 0) ready++;
+        }
+        if (ready == 0) return null;
+        int pick = random.nextInt(ready);
+        for (int moves = low; moves <= high; moves++)
+        {
+            if (sizes[moves] > 0 && pick-- == 0)
+            {
+                String board = boards[moves][heads[moves]];
+                boards[moves][heads[moves]] = null;
+                heads[moves] = (heads[moves] + 1) % boards[moves].length;
+                sizes[moves]--;
+                return board;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the generator has given up on every bucket of the range with
+     * no board left, so no board in range will be ready with the current setting.
+     *
+     * @param   low - The lowest number of moves acceptable
+     * @param   high - The highest number of moves acceptable
+     * @return  Whether the range is given up
+     */
+    public synchronized boolean isExhausted(int low, int high)
+    {
+        for (int moves = low; moves <= high; moves++)
+        {
+            if (sizes[moves] > 0 || failures[moves] < MAX_FAILURES) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of ready boards with the number of moves.
+     *
+     * @param   moves - The number of moves of the shortest solution
+     * @return  The number of ready boards
+     */
+    public synchronized int size(int moves)
+    {
+        return sizes[moves];
+    }
+
+    /**
+     * Fills the buckets until the thread is stopped.
+     */
+    @Override
+    public void run()
+    {
+        Thread current = Thread.currentThread();
+        while (true)
+        {
+            int moves;
+            boolean wanted;
+            synchronized (this)
+            {
+                while ((moves = nextBucket()) == -1 && thread == current)
+                {
+                    try
+                    {
+                        wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        // Checked by the loop
+                    }
+                }
+                if (thread != current) return;
+                wanted = unique;
+            }
+            String board;
+            synchronized (generator)
+            {
+                board = generator.generate(moves, moves, wanted);
+            }
+            synchronized (this)
+            {
+                if (thread != current) return;
+                // The setting changed during generation, the board or failure is for the old one
+                if (wanted != unique) continue;
+                if (board == null)
+                {
+                    failures[moves]++;
+                }
+                else if (sizes[moves] < boards[moves].length)
+                {
+                    boards[moves][(heads[moves] + sizes[moves]) % boards[moves].length] = board;
+                    sizes[moves]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the bucket to fill next, the emptiest of the selected range and then
+     * of the others, skipping buckets the generator failed on.
+     *
+     * @return  The number of moves of the bucket or -1 if all are full
+     */
+    private int nextBucket()
+    {
+        int best = -1;
+        for (int moves = low; moves <= high; moves++)
+        {
+            if (failures[moves] < MAX_FAILURES && sizes[moves] < boards[moves].length && (best == -1 || sizes[moves] < sizes[best])) best = moves;
+        }
+        if (best != -1) return best;
+        for (int moves = 1; moves <= MAX_MOVES; moves++)
+        {
+            if (failures[moves] < MAX_FAILURES && sizes[moves] < boards[moves].length && (best == -1 || sizes[moves] < sizes[best])) best = moves;
+        }
+        return best;
+    }
+}
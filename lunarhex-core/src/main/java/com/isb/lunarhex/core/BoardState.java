@@ -0,0 +1,323 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The board state class packs a board into a single primitive long so that
+ * moves and queries can be done without splitting or building strings. The
+ * methods are static and the class should not need to be constructed.
+ *
+ * Bits 0-26 hold the occupancy mask of the 27 hexagons, bits 27-56 hold the
+ * 5 bit index of up to six pieces (R, G, B, Y, O, P) and bits 57-59 hold the
+ * number of pieces on the board.
+ *
+ * @author Ian Baker
+ */
+public class BoardState
+{
+    /**
+     * Constants
+     */
+    public static final int CELLS = HexGeometry.CELLS;
+    public static final int DIRECTIONS = HexGeometry.DIRECTIONS;
+    public static final int MAX_PIECES = 6;
+    public static final int MAX_MOVES = MAX_PIECES * HexGeometry.DIRECTIONS;
+    public static final int CENTER = 12;
+    public static final int OCCUPANCY_MASK = (1 << CELLS) - 1;
+    public static final String COLORS = "RGBYOP";
+    private static final int POSITION_SHIFT = CELLS;
+    private static final int POSITION_BITS = 5;
+    private static final int COUNT_SHIFT = POSITION_SHIFT + (MAX_PIECES * POSITION_BITS);
+
+    /**
+     * The state of a board without any pieces
+     */
+    public static final long EMPTY = 0L;
+
+    /**
+     * The state returned when a move can not be made
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * Returns the board state with the given piece indices.
+     *
+     * @param   positions - The hexagon index of each piece in R, G, B, Y, O, P order
+     * @param   count - The number of pieces on the board
+     * @return  The packed board state
+     */
+    public static long create(int[] positions, int count)
+    {
+        long state = ((long) count) << COUNT_SHIFT;
+        for (int i = 0; i < count; i++)
+        {
+            state |= 1L << positions[i];
+            state |= ((long) positions[i]) << (POSITION_SHIFT + (i * POSITION_BITS));
+        }
+        return state;
+    }
+
+    /**
+     * Parses the board from the game string format.
+     *
+     * @param   board - Board in format used by game i.e. R-#,G-#,B-#,Y-#,O-#,P-#
+     * @return  The packed board state
+     */
+    public static long fromString(String board)
+    {
+        int[] positions = new int[MAX_PIECES];
+        int count = 0;
+        int i = 0;
+        while (i < board.length())
+        {
+            int piece = COLORS.indexOf(board.charAt(i));
+            int index = 0;
+            i += 2;
+            while (i < board.length() && board.charAt(i) != ',')
+            {
+                index = (index * 10) + (board.charAt(i) - '0');
+                i++;
+            }
+            positions[piece] = index;
+            count = Math.max(count, piece + 1);
+            i++;
+        }
+        return create(positions, count);
+    }
+
+    /**
+     * Returns the board in the game string format.
+     *
+     * @param   state - The packed board state
+     * @return  Board in format used by game i.e. R-#,G-#,B-#,Y-#,O-#,P-#
+     */
+    public static String toString(long state)
+    {
+        StringBuilder board = new StringBuilder();
+        for (int i = 0; i < pieceCount(state); i++)
+        {
+            if (i > 0) board.append(',');
+            board.append(COLORS.charAt(i)).append('-').append(position(state, i));
+        }
+        return board.toString();
+    }
+
+    /**
+     * Returns the number of pieces on the board.
+     *
+     * @param   state - The packed board state
+     * @return  The number of pieces
+     */
+    public static int pieceCount(long state)
+    {
+        return (int) (state >>> COUNT_SHIFT) & 0x7;
+    }
+
+    /**
+     * Returns the hexagon index the piece is on.
+     *
+     * @param   state - The packed board state
+     * @param   piece - The piece 0 = R, 1 = G, 2 = B, 3 = Y, 4 = O, 5 = P
+     * @return  The hexagon index of the piece
+     */
+    public static int position(long state, int piece)
+    {
+        return (int) (state >>> (POSITION_SHIFT + (piece * POSITION_BITS))) & 0x1F;
+    }
+
+    /**
+     * Returns the occupancy mask of the board, bit i is set if a piece is on hexagon i.
+     *
+     * @param   state - The packed board state
+     * @return  The occupancy mask
+     */
+    public static int occupancy(long state)
+    {
+        return (int) state & OCCUPANCY_MASK;
+    }
+
+    /**
+     * Returns whether a piece exists at the specified index.
+     *
+     * @param   state - The packed board state
+     * @param   index - The index to check
+     * @return  Whether a piece exists
+     */
+    public static boolean pieceAtIndex(long state, int index)
+    {
+        return 0 <= index && index < CELLS && (state & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the piece on the given hexagon index.
+     *
+     * @param   state - The packed board state
+     * @param   index - The index to check
+     * @return  The piece 0 = R, 1 = G, 2 = B, 3 = Y, 4 = O, 5 = P or -1 if empty
+     */
+    public static int pieceAt(long state, int index)
+    {
+        if (!pieceAtIndex(state, index)) return -1;
+        for (int i = 0; i < pieceCount(state); i++)
+        {
+            if (position(state, i) == index) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the board has been solved or not.
+     *
+     * @param   state - The packed board state
+     * @return  Whether the red piece is on the center hexagon
+     */
+    public static boolean isSolved(long state)
+    {
+        return pieceCount(state) > 0 && position(state, 0) == CENTER;
+    }
+
+    /**
+     * Returns the board state with the piece moved to the given index.
+     *
+     * @param   state - The packed board state
+     * @param   piece - The piece to move
+     * @param   index - The index to place the piece on
+     * @return  The board state after placing the piece
+     */
+    public static long withPosition(long state, int piece, int index)
+    {
+        int shift = POSITION_SHIFT + (piece * POSITION_BITS);
+        int from = (int) (state >>> shift) & 0x1F;
+        state &= ~((1L << from) | (0x1FL << shift));
+        return state | (1L << index) | (((long) index) << shift);
+    }
+
+    /**
+     * Returns the index a piece on the given hexagon stops at when sliding in a direction.
+     *
+     * @param   state - The packed board state
+     * @param   index - The index the sliding piece starts on
+     * @param   dir - The direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     * @return  The index the piece stops on or -1 if the slide is not legal
+     */
+    public static int slideDestination(long state, int index, int dir)
+    {
+        return HexGeometry.slideDestination((int) state & OCCUPANCY_MASK, index, dir);
+    }
+
+    /**
+     * Returns the board state after preforming the given move.
+     *
+     * @param   state - The packed board state
+     * @param   move - The move 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL, 0-5 = Red, 6-11 = Green etc.
+     * @return  The board state after the given move or INVALID if the move is not legal
+     */
+    public static long afterMove(long state, int move)
+    {
+        int piece = move / DIRECTIONS;
+        if (piece >= pieceCount(state)) return INVALID;
+        int stop = slideDestination(state, position(state, piece), move % DIRECTIONS);
+        if (stop == -1) return INVALID;
+        return withPosition(state, piece, stop);
+    }
+
+    /**
+     * Generates every legal move of the board in one pass, filling the given buffers with the
+     * encoded move (piece * 6 + direction) and the board state after the move. The buffers must
+     * hold at least MAX_MOVES entries.
+     *
+     * @param   state - The packed board state
+     * @param   moves - The buffer to fill with the encoded moves
+     * @param   results - The buffer to fill with the board state after each move
+     * @return  The number of legal moves
+     */
+    public static int generateMoves(long state, int[] moves, long[] results)
+    {
+        int occupancy = (int) state & OCCUPANCY_MASK;
+        int count = pieceCount(state);
+        int total = 0;
+        for (int piece = 0; piece < count; piece++)
+        {
+            int shift = POSITION_SHIFT + (piece * POSITION_BITS);
+            int from = (int) (state >>> shift) & 0x1F;
+            long cleared = state & ~((1L << from) | (0x1FL << shift));
+            for (int dir = 0; dir < DIRECTIONS; dir++)
+            {
+                int stop = HexGeometry.slideDestination(occupancy, from, dir);
+                if (stop != -1)
+                {
+                    moves[total] = (piece * DIRECTIONS) + dir;
+                    results[total] = cleared | (1L << stop) | (((long) stop) << shift);
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the mask of the hexagons along the paths of the piece on the given index,
+     * excluding the hexagons at the end of the paths.
+     *
+     * @param   state - The packed board state
+     * @param   index - The selected piece index
+     * @return  The mask of indices along the path
+     */
+    public static int pathMask(long state, int index)
+    {
+        int occupancy = (int) state & OCCUPANCY_MASK;
+        int mask = 0;
+        for (int dir = 0; dir < DIRECTIONS; dir++)
+        {
+            mask |= HexGeometry.openRayMask(occupancy, index, dir);
+        }
+        return mask & ~stopMask(state, index);
+    }
+
+    /**
+     * Returns the mask of the hexagons at the end of the paths of the piece on the given index.
+     *
+     * @param   state - The packed board state
+     * @param   index - The selected piece index
+     * @return  The mask of indices at the end of the paths
+     */
+    public static int stopMask(long state, int index)
+    {
+        int occupancy = (int) state & OCCUPANCY_MASK;
+        int mask = 0;
+        for (int dir = 0; dir < DIRECTIONS; dir++)
+        {
+            int stop = HexGeometry.slideDestination(occupancy, index, dir);
+            if (stop != -1) mask |= 1 << stop;
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the piece that differs between the two boards.
+     *
+     * @param   startState - The starting board state
+     * @param   endState - The ending board state
+     * @return  The first piece with a different index or -1 if the boards match
+     */
+    public static int movedPiece(long startState, long endState)
+    {
+        for (int i = 0; i < pieceCount(startState); i++)
+        {
+            if (position(startState, i) != position(endState, i)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the move that turns one board into the other.
+     *
+     * @param   startState - The starting board state
+     * @param   endState - The board state one move later
+     * @return  The encoded move, piece * 6 + direction, or -1 if the boards match
+     */
+    public static int moveBetween(long startState, long endState)
+    {
+        int piece = movedPiece(startState, endState);
+        if (piece == -1) return -1;
+        return (piece * DIRECTIONS) + HexGeometry.direction(position(startState, piece), position(endState, piece));
+    }
+}
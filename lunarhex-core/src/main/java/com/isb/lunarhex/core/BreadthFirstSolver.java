@@ -0,0 +1,172 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The breadth first solver finds a shortest move sequence from any board
+ * state. The search runs over canonical layouts, so boards that only differ
+ * by helper colors or reflection are expanded once, and the queue and visited
+ * map are kept between searches so a solver can be reused without allocating.
+ * A node limit bounds the search for callers that can not wait, such as the
+ * frame loop, and a search on an interrupted thread gives up so background
+ * workers can be stopped promptly.
+ *
+ * @author Ian Baker
+ */
+public class BreadthFirstSolver implements Solver
+{
+    /**
+     * Constants
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INTERRUPT_CHECK_MASK = 1023;
+
+    /**
+     * The layouts in the order they were reached
+     */
+    private long[] queue;
+
+    /**
+     * The queue index of the layout each queued layout was reached from or -1
+     */
+    private int[] parents;
+
+    /**
+     * The queue index of each canonical layout that has been reached
+     */
+    private final LongIntMap visited;
+
+    /**
+     * The number of layouts expanded by the last search
+     */
+    private int nodes;
+
+    /**
+     * The most layouts a search may expand
+     */
+    private final int nodeLimit;
+
+    /**
+     * Whether the last search stopped at the node limit
+     */
+    private boolean limitReached;
+
+    /**
+     * Constructor for the solver.
+     */
+    public BreadthFirstSolver()
+    {
+        this(UNLIMITED);
+    }
+
+    /**
+     * Constructor for a solver that gives up after expanding the number of layouts.
+     *
+     * @param   nodeLimit - The most layouts a search may expand
+     */
+    public BreadthFirstSolver(int nodeLimit)
+    {
+        this.nodeLimit = nodeLimit;
+        queue = new long[INITIAL_CAPACITY];
+        parents = new int[INITIAL_CAPACITY];
+        visited = new LongIntMap(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Finds a shortest sequence of moves that solves the board.
+     *
+     * @param   state - The packed board state
+     * @return  The board states from the given state to the solved board or null if not solvable, the limit was reached or the thread was interrupted
+     */
+    @Override
+    public long[] solve(long state)
+    {
+        nodes = 0;
+        limitReached = false;
+        visited.clear();
+        long start = Layout.of(state);
+        queue[0] = start;
+        parents[0] = -1;
+        visited.putIfAbsent(Layout.canonical(start), 0);
+        if (Layout.isSolved(start)) return path(state, 0);
+        int tail = 1;
+        for (int head = 0; head < tail; head++)
+        {
+            if (nodes == nodeLimit)
+            {
+                limitReached = true;
+                return null;
+            }
+            if ((nodes & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) return null;
+            long layout = queue[head];
+            nodes++;
+            int pieces = Layout.occupancy(layout);
+            while (pieces != 0)
+            {
+                int index = Integer.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                for (int dir = 0; dir < BoardState.DIRECTIONS; dir++)
+                {
+                    long next = Layout.slide(layout, index, dir);
+                    if (next == BoardState.INVALID || !visited.putIfAbsent(Layout.canonical(next), tail)) continue;
+                    if (tail == queue.length) grow();
+                    queue[tail] = next;
+                    parents[tail] = head;
+                    if (Layout.isSolved(next)) return path(state, tail);
+                    tail++;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of layouts expanded by the last search.
+     *
+     * @return  The number of expanded layouts
+     */
+    @Override
+    public int nodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Returns whether the last search gave up at the node limit before it could
+     * tell whether the board is solvable.
+     *
+     * @return  Whether the node limit was reached
+     */
+    public boolean limitReached()
+    {
+        return limitReached;
+    }
+
+    /**
+     * Replays the layouts leading to the queued layout as colored board states.
+     *
+     * @param   state - The packed board state the search started from
+     * @param   end - The queue index of the solved layout
+     * @return  The board states from the given state to the solved board
+     */
+    private long[] path(long state, int end)
+    {
+        int length = 0;
+        for (int i = end; i != -1; i = parents[i]) length++;
+        long[] layouts = new long[length];
+        for (int i = end, j = length - 1; i != -1; i = parents[i], j--) layouts[j] = queue[i];
+        return Layout.replay(state, layouts);
+    }
+
+    /**
+     * Doubles the capacity of the queue.
+     */
+    private void grow()
+    {
+        long[] newQueue = new long[queue.length * 2];
+        int[] newParents = new int[parents.length * 2];
+        System.arraycopy(queue, 0, newQueue, 0, queue.length);
+        System.arraycopy(parents, 0, newParents, 0, parents.length);
+        queue = newQueue;
+        parents = newParents;
+    }
+}
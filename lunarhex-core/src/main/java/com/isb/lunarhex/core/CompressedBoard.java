@@ -0,0 +1,92 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The compressed board class parses and writes boards of the compressed
+ * format M...RGBYOP where M is the number of moves in the solution, followed
+ * by the M encoded moves and the index of each piece, all as base 36 digits.
+ * The methods are static and the class should not need to be constructed.
+ *
+ * @author Ian Baker
+ */
+public class CompressedBoard
+{
+    /**
+     * Returns the number of moves in the solution of the board.
+     *
+     * @param   compressedBoard - Board of the format M...RGBYOP
+     * @return  The minimum number of moves to solve the board
+     */
+    public static int moveCount(String compressedBoard)
+    {
+        return Character.digit(compressedBoard.charAt(0), 36);
+    }
+
+    /**
+     * Returns the encoded move at the given step of the solution.
+     *
+     * @param   compressedBoard - Board of the format M...RGBYOP
+     * @param   step - The step of the solution, zero based
+     * @return  The encoded move, piece * 6 + direction
+     */
+    public static int move(String compressedBoard, int step)
+    {
+        return Character.digit(compressedBoard.charAt(step + 1), 36);
+    }
+
+    /**
+     * Returns the starting board state.
+     *
+     * @param   compressedBoard - Board of the format M...RGBYOP
+     * @return  The packed board state
+     */
+    public static long board(String compressedBoard)
+    {
+        int skip = moveCount(compressedBoard);
+        int count = Math.min(compressedBoard.length() - skip - 1, BoardState.MAX_PIECES);
+        int[] positions = new int[BoardState.MAX_PIECES];
+        for (int i = 0; i < count; i++)
+        {
+            positions[i] = Character.digit(compressedBoard.charAt(skip + 1 + i), 36);
+        }
+        return BoardState.create(positions, count);
+    }
+
+    /**
+     * Replays the solution of the board.
+     *
+     * @param   compressedBoard - Board of the format M...RGBYOP
+     * @return  The board states from the start to the solved board
+     */
+    public static long[] solution(String compressedBoard)
+    {
+        int moves = moveCount(compressedBoard);
+        long[] solution = new long[moves + 1];
+        solution[0] = board(compressedBoard);
+        for (int i = 1; i <= moves; i++)
+        {
+            solution[i] = BoardState.afterMove(solution[i - 1], move(compressedBoard, i - 1));
+        }
+        return solution;
+    }
+
+    /**
+     * Writes the board and its solution in compressed format.
+     *
+     * @param   solution - The board states from the start to the solved board
+     * @return  Board of the format M...RGBYOP
+     */
+    public static String encode(long[] solution)
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append(Character.forDigit(solution.length - 1, 36));
+        for (int i = 1; i < solution.length; i++)
+        {
+            builder.append(Character.forDigit(BoardState.moveBetween(solution[i - 1], solution[i]), 36));
+        }
+        for (int i = 0; i < BoardState.pieceCount(solution[0]); i++)
+        {
+            builder.append(Character.forDigit(BoardState.position(solution[0], i), 36));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The dead end detector tells whether red can still reach the center from a
+ * board state without ever making the frame loop wait. The distance database
+ * answers with a single lookup in the frame a move finishes, otherwise the
+ * board is searched breadth first on a background worker and the answer is
+ * polled once per frame until it arrives.
+ *
+ * @author Ian Baker
+ */
+public class DeadEndDetector
+{
+    /**
+     * Constants
+     */
+    public static final int SOLVABLE = 0;
+    public static final int DEAD_END = 1;
+    public static final int UNKNOWN = 2;
+
+    /**
+     * The fewest moves to solve every layout or null if not available
+     */
+    private final DistanceDatabase distances;
+
+    /**
+     * Searches the boards the distance database can not answer in the background
+     */
+    private final HintWorker worker;
+
+    /**
+     * The board state being searched in the background or BoardState.INVALID
+     */
+    private long searching;
+
+    /**
+     * Constructor for the detector.
+     *
+     * @param   distances - The fewest moves to solve every layout or null if not available
+     */
+    public DeadEndDetector(DistanceDatabase distances)
+    {
+        this.distances = distances;
+        worker = new HintWorker(new BreadthFirstSolver());
+        searching = BoardState.INVALID;
+    }
+
+    /**
+     * Classifies the board state, starting a background search when the distance
+     * database can not answer. The search replaces any earlier one.
+     *
+     * @param   state - The packed board state
+     * @return  SOLVABLE, DEAD_END or UNKNOWN until the background search finishes
+     */
+    public int classify(long state)
+    {
+        if (distances != null)
+        {
+            int distance = distances.distanceOf(state);
+            if (distance == DistanceDatabase.UNSOLVABLE) return DEAD_END;
+            if (distance != DistanceDatabase.UNKNOWN) return SOLVABLE;
+        }
+        searching = state;
+        worker.submit(state);
+        return UNKNOWN;
+    }
+
+    /**
+     * Returns the result of the background search of the board state once, when finished.
+     *
+     * @param   state - The packed board state
+     * @return  SOLVABLE, DEAD_END or UNKNOWN if the board state is not being searched or the search is not finished
+     */
+    public int poll(long state)
+    {
+        if (searching == BoardState.INVALID || searching != state) return UNKNOWN;
+        long[] path = worker.poll();
+        if (path == null) return UNKNOWN;
+        searching = BoardState.INVALID;
+        return (path == HintWorker.UNSOLVABLE) ? DEAD_END : SOLVABLE;
+    }
+
+    /**
+     * Cancels the background search, its result will not be delivered.
+     */
+    public void cancel()
+    {
+        searching = BoardState.INVALID;
+        worker.cancel();
+    }
+
+    /**
+     * Stops the background worker and waits for it to finish.
+     */
+    public void shutdown()
+    {
+        searching = BoardState.INVALID;
+        worker.shutdown();
+    }
+}
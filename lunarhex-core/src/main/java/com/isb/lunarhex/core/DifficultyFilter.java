@@ -0,0 +1,123 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The difficulty filter accepts the boards of a difficulty index whose
+ * metrics are within ranges. Every range is open until set, each setter
+ * returns the filter so ranges can be chained.
+ *
+ * @author Ian Baker
+ */
+public class DifficultyFilter
+{
+    /**
+     * The inclusive range of reachable layouts
+     */
+    private int minReachable = 0;
+    private int maxReachable = Integer.MAX_VALUE;
+
+    /**
+     * The inclusive range of shortest solutions
+     */
+    private int minSolutions = 0;
+    private int maxSolutions = Integer.MAX_VALUE;
+
+    /**
+     * The inclusive range of the branching factor
+     */
+    private float minBranching = 0f;
+    private float maxBranching = Float.MAX_VALUE;
+
+    /**
+     * The inclusive range of the dead end fraction
+     */
+    private float minDeadEndFraction = 0f;
+    private float maxDeadEndFraction = 1f;
+
+    /**
+     * Sets the range of reachable layouts.
+     *
+     * @param   min - The fewest reachable layouts
+     * @param   max - The most reachable layouts
+     * @return  The filter
+     */
+    public DifficultyFilter reachable(int min, int max)
+    {
+        minReachable = min;
+        maxReachable = max;
+        return this;
+    }
+
+    /**
+     * Sets the range of shortest solutions, 1 to 1 for boards with a unique solution.
+     *
+     * @param   min - The fewest shortest solutions
+     * @param   max - The most shortest solutions
+     * @return  The filter
+     */
+    public DifficultyFilter solutions(int min, int max)
+    {
+        minSolutions = min;
+        maxSolutions = max;
+        return this;
+    }
+
+    /**
+     * Sets the range of the branching factor.
+     *
+     * @param   min - The lowest average number of legal moves
+     * @param   max - The highest average number of legal moves
+     * @return  The filter
+     */
+    public DifficultyFilter branching(float min, float max)
+    {
+        minBranching = min;
+        maxBranching = max;
+        return this;
+    }
+
+    /**
+     * Sets the range of the dead end fraction.
+     *
+     * @param   min - The lowest fraction of moves into dead ends
+     * @param   max - The highest fraction of moves into dead ends
+     * @return  The filter
+     */
+    public DifficultyFilter deadEndFraction(float min, float max)
+    {
+        minDeadEndFraction = min;
+        maxDeadEndFraction = max;
+        return this;
+    }
+
+    /**
+     * Returns whether the filter accepts every board.
+     *
+     * @return  Whether no range has been narrowed
+     */
+    public boolean acceptsAll()
+    {
+        return minReachable <= 0 && maxReachable == Integer.MAX_VALUE
+                && minSolutions <= 0 && maxSolutions == Integer.MAX_VALUE
+                && minBranching <= 0f && maxBranching == Float.MAX_VALUE
+                && minDeadEndFraction <= 0f && maxDeadEndFraction >= 1f;
+    }
+
+    /**
+     * Returns whether the metrics of the board are within every range.
+     *
+     * @param   index - The difficulty index of the board corpus
+     * @param   board - The position of the board in its file
+     * @return  Whether the board is accepted
+     */
+    public boolean accepts(DifficultyIndex index, int board)
+    {
+        int reachable = index.reachable(board);
+        if (reachable < minReachable || maxReachable < reachable) return false;
+        int solutions = index.solutions(board);
+        if (solutions < minSolutions || maxSolutions < solutions) return false;
+        float branching = index.branching(board);
+        if (branching < minBranching || maxBranching < branching) return false;
+        float deadEnds = index.deadEndFraction(board);
+        return minDeadEndFraction <= deadEnds && deadEnds <= maxDeadEndFraction;
+    }
+}
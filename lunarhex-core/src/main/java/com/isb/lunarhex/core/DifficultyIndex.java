@@ -0,0 +1,172 @@
+package com.isb.lunarhex.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The difficulty index holds the difficulty metrics of every board of a board
+ * corpus, in the order of the corpus, so boards can be filtered without
+ * decoding them. Each board takes a six byte record: the reachable layouts and the
+ * shortest solutions as unsigned shorts saturated at MAX_COUNT, the branching
+ * factor in eighths and the dead end fraction in 255ths as unsigned bytes.
+ *
+ * The file starts with a header of three ints, the magic number, the version
+ * and the number of boards.
+ *
+ * @author Ian Baker
+ */
+public class DifficultyIndex
+{
+    /**
+     * Constants
+     */
+    public static final String FILE_NAME = "boards_small.difficulty";
+    public static final int MAGIC = 0x4C484449;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 12;
+    public static final int RECORD_BYTES = 6;
+    public static final int MAX_COUNT = 0xFFFF;
+    private static final float BRANCHING_SCALE = 8f;
+    private static final float FRACTION_SCALE = 255f;
+
+    /**
+     * The bytes of the index file
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of boards
+     */
+    private final int size;
+
+    /**
+     * Constructor for the index.
+     *
+     * @param   buffer - The bytes of the index file
+     * @throws  IllegalArgumentException if the bytes are not an index of this version
+     */
+    public DifficultyIndex(ByteBuffer buffer)
+    {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+        {
+            throw new IllegalArgumentException("Not a difficulty index of version " + VERSION);
+        }
+        this.buffer = buffer;
+        size = buffer.getInt(8);
+        if (size < 0 || buffer.capacity() < HEADER_BYTES + ((long) size * RECORD_BYTES))
+        {
+            throw new IllegalArgumentException("Truncated difficulty index");
+        }
+    }
+
+    /**
+     * Creates an empty index for the number of boards.
+     *
+     * @param   size - The number of boards
+     * @return  The index with every metric zero
+     */
+    public static DifficultyIndex allocate(int size)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + (size * RECORD_BYTES));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, size);
+        return new DifficultyIndex(buffer);
+    }
+
+    /**
+     * Writes the index file.
+     *
+     * @param   file - The index file
+     * @throws  IOException if the file could not be written
+     */
+    public void write(File file) throws IOException
+    {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+        {
+            throw new IOException("Could not create " + parent);
+        }
+        OutputStream output = new FileOutputStream(file);
+        try
+        {
+            for (int i = 0; i < HEADER_BYTES + (size * RECORD_BYTES); i++) output.write(buffer.get(i));
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    /**
+     * Returns the number of boards.
+     *
+     * @return  The number of boards
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Stores the metrics of the board.
+     *
+     * @param   board - The position of the board in its file
+     * @param   metrics - The metrics measured for the board
+     */
+    public void set(int board, DifficultyMetrics metrics)
+    {
+        int position = HEADER_BYTES + (board * RECORD_BYTES);
+        buffer.putShort(position, (short) Math.min(metrics.reachable(), MAX_COUNT));
+        buffer.putShort(position + 2, (short) Math.min(metrics.solutions(), MAX_COUNT));
+        buffer.put(position + 4, (byte) Math.min(Math.round(metrics.branching() * BRANCHING_SCALE), 0xFF));
+        buffer.put(position + 5, (byte) Math.round(metrics.deadEndFraction() * FRACTION_SCALE));
+    }
+
+    /**
+     * Returns the number of layouts reachable from the board.
+     *
+     * @param   board - The position of the board in its file
+     * @return  The number of reachable layouts, at most MAX_COUNT
+     */
+    public int reachable(int board)
+    {
+        return buffer.getShort(HEADER_BYTES + (board * RECORD_BYTES)) & 0xFFFF;
+    }
+
+    /**
+     * Returns the number of distinct shortest solutions of the board.
+     *
+     * @param   board - The position of the board in its file
+     * @return  The number of solutions, at most MAX_COUNT
+     */
+    public int solutions(int board)
+    {
+        return buffer.getShort(HEADER_BYTES + (board * RECORD_BYTES) + 2) & 0xFFFF;
+    }
+
+    /**
+     * Returns the average number of legal moves in the layouts reachable from the board.
+     *
+     * @param   board - The position of the board in its file
+     * @return  The branching factor to the nearest eighth
+     */
+    public float branching(int board)
+    {
+        return (buffer.get(HEADER_BYTES + (board * RECORD_BYTES) + 4) & 0xFF) / BRANCHING_SCALE;
+    }
+
+    /**
+     * Returns the fraction of legal moves reachable from the board that leave it unsolvable.
+     *
+     * @param   board - The position of the board in its file
+     * @return  The dead end fraction from 0 to 1
+     */
+    public float deadEndFraction(int board)
+    {
+        return (buffer.get(HEADER_BYTES + (board * RECORD_BYTES) + 5) & 0xFF) / FRACTION_SCALE;
+    }
+}
@@ -0,0 +1,156 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The difficulty metrics measure how hard a board is beyond its number of
+ * moves: the number of layouts the player can reach, the average number of
+ * moves available in them, the fraction of those moves that lead to a dead
+ * end and the number of distinct shortest solutions. The reachable layouts
+ * are searched over canonical layouts and solved layouts are not expanded, as
+ * the game ends there. A measure reuses its buffers, so one instance should be
+ * kept per thread.
+ *
+ * @author Ian Baker
+ */
+public class DifficultyMetrics
+{
+    /**
+     * Constants
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The fewest moves to solve every layout
+     */
+    private final DistanceDatabase distances;
+
+    /**
+     * Counts the shortest solutions, memoized across measures
+     */
+    private final OptimalMoves optimalMoves;
+
+    /**
+     * The layouts in the order they were reached
+     */
+    private long[] queue;
+
+    /**
+     * The canonical layouts that have been reached
+     */
+    private final LongIntMap visited;
+
+    /**
+     * The results of the last measure
+     */
+    private int reachable;
+    private int expanded;
+    private int moves;
+    private int deadEndMoves;
+    private long solutions;
+
+    /**
+     * Constructor for the metrics.
+     *
+     * @param   distances - The fewest moves to solve every layout
+     */
+    public DifficultyMetrics(DistanceDatabase distances)
+    {
+        this.distances = distances;
+        optimalMoves = new OptimalMoves(distances);
+        queue = new long[INITIAL_CAPACITY];
+        visited = new LongIntMap(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Measures the board state.
+     *
+     * @param   state - The packed board state
+     */
+    public void measure(long state)
+    {
+        visited.clear();
+        expanded = 0;
+        moves = 0;
+        deadEndMoves = 0;
+        long start = Layout.canonicalOf(state);
+        queue[0] = start;
+        visited.put(start, 0);
+        int tail = 1;
+        for (int head = 0; head < tail; head++)
+        {
+            long layout = queue[head];
+            if (Layout.isSolved(layout)) continue;
+            expanded++;
+            int pieces = Layout.occupancy(layout);
+            while (pieces != 0)
+            {
+                int index = Integer.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                for (int dir = 0; dir < BoardState.DIRECTIONS; dir++)
+                {
+                    long next = Layout.slide(layout, index, dir);
+                    if (next == BoardState.INVALID) continue;
+                    moves++;
+                    if (distances.distance(next) == DistanceDatabase.UNSOLVABLE) deadEndMoves++;
+                    next = Layout.canonical(next);
+                    if (!visited.putIfAbsent(next, tail)) continue;
+                    if (tail == queue.length) grow();
+                    queue[tail++] = next;
+                }
+            }
+        }
+        reachable = tail;
+        solutions = optimalMoves.count(state);
+    }
+
+    /**
+     * Returns the number of layouts reachable from the last board measured,
+     * counting reflections once.
+     *
+     * @return  The number of reachable layouts including the start
+     */
+    public int reachable()
+    {
+        return reachable;
+    }
+
+    /**
+     * Returns the average number of legal moves in the unsolved reachable layouts.
+     *
+     * @return  The average branching factor
+     */
+    public float branching()
+    {
+        return (expanded == 0) ? 0f : (float) moves / expanded;
+    }
+
+    /**
+     * Returns the fraction of legal moves in the reachable layouts that leave the
+     * board unsolvable.
+     *
+     * @return  The dead end fraction from 0 to 1
+     */
+    public float deadEndFraction()
+    {
+        return (moves == 0) ? 0f : (float) deadEndMoves / moves;
+    }
+
+    /**
+     * Returns the number of distinct shortest solutions of the last board measured.
+     *
+     * @return  The number of solutions, saturated at Long.MAX_VALUE
+     */
+    public long solutions()
+    {
+        return solutions;
+    }
+
+    /**
+     * Doubles the capacity of the queue.
+     */
+    private void grow()
+    {
+        long[] newQueue = new long[queue.length * 2];
+        System.arraycopy(queue, 0, newQueue, 0, queue.length);
+        queue = newQueue;
+    }
+}
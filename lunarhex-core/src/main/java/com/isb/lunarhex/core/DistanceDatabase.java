@@ -0,0 +1,167 @@
+package com.isb.lunarhex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The distance database holds the fewest moves to solve every layout of two
+ * to six pieces, five bits per layout ordered by the layout index. The file is
+ * read through a buffer, normally memory mapped, so nothing but the header is
+ * copied onto the heap and every lookup is a two byte read.
+ *
+ * The file starts with a header of four ints, the magic number, the version
+ * and the smallest and largest number of pieces, followed by the packed
+ * distances of each number of pieces in turn.
+ *
+ * @author Ian Baker
+ */
+public class DistanceDatabase
+{
+    /**
+     * Constants
+     */
+    public static final String FILE_NAME = "distances.db";
+    public static final int MAGIC = 0x4C484442;
+    public static final int VERSION = 1;
+    public static final int MIN_PIECES = 2;
+    public static final int MAX_PIECES = BoardState.MAX_PIECES;
+    public static final int HEADER_BYTES = 16;
+    public static final int BITS = 5;
+    private static final int VALUE_MASK = (1 << BITS) - 1;
+
+    /**
+     * The distance stored for a layout that can not be solved
+     */
+    public static final int UNSOLVABLE = VALUE_MASK;
+
+    /**
+     * The distance returned for a layout with a number of pieces not in the database
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * The bytes of the database file
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The entry offset of the first layout with each number of pieces
+     */
+    private final long[] offsets;
+
+    /**
+     * Constructor for the database.
+     *
+     * @param   buffer - The bytes of the database file
+     * @throws  IllegalArgumentException if the bytes are not a database of this version
+     */
+    public DistanceDatabase(ByteBuffer buffer)
+    {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(8) != MIN_PIECES || buffer.getInt(12) != MAX_PIECES)
+        {
+            throw new IllegalArgumentException("Not a distance database of version " + VERSION);
+        }
+        this.buffer = buffer;
+        offsets = entryOffsets();
+        if (buffer.capacity() < fileSize())
+        {
+            throw new IllegalArgumentException("Truncated distance database");
+        }
+    }
+
+    /**
+     * Memory maps the database file read only.
+     *
+     * @param   file - The database file
+     * @return  The database
+     * @throws  IOException if the file could not be mapped
+     */
+    public static DistanceDatabase map(File file) throws IOException
+    {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = input.getChannel();
+            return new DistanceDatabase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Returns the entry offset of the first layout with each number of pieces.
+     *
+     * @return  The entry offsets indexed by number of pieces, up to MAX_PIECES + 1
+     */
+    static long[] entryOffsets()
+    {
+        long[] offsets = new long[MAX_PIECES + 2];
+        for (int pieces = MIN_PIECES; pieces <= MAX_PIECES; pieces++)
+        {
+            offsets[pieces + 1] = offsets[pieces] + LayoutIndex.size(pieces);
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns the size of the database file in bytes, one byte is added so that
+     * the last entry can be read as two bytes.
+     *
+     * @return  The file size
+     */
+    static int fileSize()
+    {
+        return HEADER_BYTES + (int) (((entryOffsets()[MAX_PIECES + 1] * BITS) + 7) / 8) + 1;
+    }
+
+    /**
+     * Returns the fewest moves to solve the layout.
+     *
+     * @param   layout - The layout
+     * @return  The number of moves, UNSOLVABLE or UNKNOWN if the number of pieces is not stored
+     */
+    public int distance(long layout)
+    {
+        int pieces = Integer.bitCount(Layout.occupancy(layout));
+        if (pieces < MIN_PIECES || MAX_PIECES < pieces) return UNKNOWN;
+        long bit = (offsets[pieces] + LayoutIndex.rank(layout)) * BITS;
+        int position = HEADER_BYTES + (int) (bit >>> 3);
+        int value = (buffer.get(position) & 0xFF) | ((buffer.get(position + 1) & 0xFF) << 8);
+        return (value >>> (int) (bit & 7)) & VALUE_MASK;
+    }
+
+    /**
+     * Returns the fewest moves to solve the board.
+     *
+     * @param   state - The packed board state
+     * @return  The number of moves, UNSOLVABLE or UNKNOWN if the number of pieces is not stored
+     */
+    public int distanceOf(long state)
+    {
+        return distance(Layout.of(state));
+    }
+
+    /**
+     * Returns a move that starts a shortest solution of the board.
+     *
+     * @param   state - The packed board state
+     * @return  The encoded move, piece * 6 + direction, or -1 if solved, not solvable or unknown
+     */
+    public int bestMove(long state)
+    {
+        int distance = distanceOf(state);
+        if (distance == UNKNOWN || distance == UNSOLVABLE || distance == 0) return -1;
+        for (int move = 0; move < BoardState.pieceCount(state) * BoardState.DIRECTIONS; move++)
+        {
+            long result = BoardState.afterMove(state, move);
+            if (result != BoardState.INVALID && distanceOf(result) == distance - 1) return move;
+        }
+        return -1;
+    }
+}
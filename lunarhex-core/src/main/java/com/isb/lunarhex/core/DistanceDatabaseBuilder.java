@@ -0,0 +1,154 @@
+package com.isb.lunarhex.core;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The distance database builder computes the fewest moves to solve every
+ * layout with a breadth first search backward from the solved layouts, and
+ * writes the distance database file. It is run by the build and is not part
+ * of the app.
+ *
+ * @author Ian Baker
+ */
+public class DistanceDatabaseBuilder
+{
+    /**
+     * Builds the database and writes it to the file given as the only argument, on
+     * every processor when there is more than one.
+     *
+     * @param   args - The path of the database file to write
+     * @throws  IOException if the file could not be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            System.err.println("Usage: DistanceDatabaseBuilder <output file>");
+            System.exit(1);
+        }
+        long start = System.currentTimeMillis();
+        File file = new File(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        write(file, threads > 1 ? new ParallelDistanceBuilder(new ForkJoinPool(threads)).build() : build());
+        System.out.println("Wrote " + file + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Computes the distances of every layout, indexed by number of pieces and layout index.
+     *
+     * @return  The distances of the layouts with each number of pieces
+     */
+    public static byte[][] build()
+    {
+        byte[][] distances = new byte[DistanceDatabase.MAX_PIECES + 1][];
+        for (int pieces = DistanceDatabase.MIN_PIECES; pieces <= DistanceDatabase.MAX_PIECES; pieces++)
+        {
+            distances[pieces] = build(pieces);
+        }
+        return distances;
+    }
+
+    /**
+     * Computes the distances of every layout with the number of pieces.
+     *
+     * @param   pieces - The number of pieces including red
+     * @return  The distances indexed by layout index
+     */
+    public static byte[] build(int pieces)
+    {
+        int size = LayoutIndex.size(pieces);
+        byte[] distances = new byte[size];
+        Arrays.fill(distances, (byte) DistanceDatabase.UNSOLVABLE);
+        int[] queue = new int[size];
+        long[] previous = new long[Layout.MAX_PREVIOUS];
+        int tail = 0;
+        // The solved layouts are the contiguous range with red on the center
+        int first = LayoutIndex.first(pieces, BoardState.CENTER);
+        int last = LayoutIndex.first(pieces, BoardState.CENTER + 1);
+        for (int i = first; i < last; i++)
+        {
+            distances[i] = 0;
+            queue[tail++] = i;
+        }
+        for (int head = 0; head < tail; head++)
+        {
+            int index = queue[head];
+            int distance = distances[index] + 1;
+            if (distance >= DistanceDatabase.UNSOLVABLE)
+            {
+                throw new IllegalStateException("Distance does not fit in " + DistanceDatabase.BITS + " bits");
+            }
+            int count = Layout.previous(LayoutIndex.unrank(pieces, index), previous);
+            for (int j = 0; j < count; j++)
+            {
+                int next = LayoutIndex.rank(previous[j]);
+                if (distances[next] != DistanceDatabase.UNSOLVABLE) continue;
+                distances[next] = (byte) distance;
+                queue[tail++] = next;
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Writes the database file.
+     *
+     * @param   file - The database file
+     * @param   distances - The distances of the layouts with each number of pieces
+     * @throws  IOException if the file could not be written
+     */
+    public static void write(File file, byte[][] distances) throws IOException
+    {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+        {
+            throw new IOException("Could not create " + parent);
+        }
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(file));
+        try
+        {
+            output.write(encode(distances).array());
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    /**
+     * Returns the bytes of the database file, so the distances can be used as a
+     * database without writing them.
+     *
+     * @param   distances - The distances of the layouts with each number of pieces
+     * @return  The bytes of the database file
+     */
+    public static ByteBuffer encode(byte[][] distances)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(DistanceDatabase.fileSize());
+        buffer.putInt(DistanceDatabase.MAGIC);
+        buffer.putInt(DistanceDatabase.VERSION);
+        buffer.putInt(DistanceDatabase.MIN_PIECES);
+        buffer.putInt(DistanceDatabase.MAX_PIECES);
+        byte[] data = buffer.array();
+        long bit = 0;
+        for (int pieces = DistanceDatabase.MIN_PIECES; pieces <= DistanceDatabase.MAX_PIECES; pieces++)
+        {
+            for (int i = 0; i < distances[pieces].length; i++, bit += DistanceDatabase.BITS)
+            {
+                int value = distances[pieces][i] << (int) (bit & 7);
+                int position = DistanceDatabase.HEADER_BYTES + (int) (bit >>> 3);
+                data[position] |= (byte) value;
+                data[position + 1] |= (byte) (value >>> 8);
+            }
+        }
+        buffer.clear();
+        return buffer;
+    }
+}
@@ -0,0 +1,248 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The hex geometry class holds the tables describing the shape of the board,
+ * built once so that slides are resolved by scanning a table row instead of
+ * stepping through coordinates. The methods are static and the class should
+ * not need to be constructed.
+ *
+ * The board is a 5 x 5 grid of hexagons with odd columns raised by half a
+ * hexagon, plus the two extra hexagons 25 and 26 below columns 1 and 3. The
+ * tables are copied from HexShape.LUNAR and packed for the 32 bit occupancy
+ * mask of a board state.
+ *
+ * @author Ian Baker
+ */
+public class HexGeometry
+{
+    /**
+     * Constants
+     */
+    public static final int CELLS = 27;
+    public static final int DIRECTIONS = 6;
+    public static final int COLUMNS = 5;
+    public static final int ROWS = 6;
+    public static final int RAY_STRIDE = 8;
+    public static final int MAX_RAY_LENGTH = 5;
+    private static final int RAY_SHIFT = 3;
+    private static final int PADDING = 31;
+
+    /**
+     * The opposite of each direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     */
+    public static final int[] OPPOSITE = {1, 0, 5, 4, 3, 2};
+
+    /**
+     * The direction reflected about the center column 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     */
+    public static final int[] MIRROR_DIRECTION = {0, 1, 3, 2, 5, 4};
+
+    /**
+     * The column and row of each hexagon index
+     */
+    private static final int[] COLUMN = new int[CELLS];
+    private static final int[] ROW = new int[CELLS];
+
+    /**
+     * The hexagon index at column * ROWS + row or -1 if not on the board
+     */
+    private static final int[] GRID = new int[COLUMNS * ROWS];
+
+    /**
+     * The ordered hexagon indices along each ray, the ray for an index and direction
+     * starts at ((index * 6) + direction) * RAY_STRIDE
+     */
+    static final int[] RAYS = new int[CELLS * DIRECTIONS * RAY_STRIDE];
+
+    /**
+     * The number of hexagons along the ray for (index * 6) + direction
+     */
+    static final int[] RAY_LENGTHS = new int[CELLS * DIRECTIONS];
+
+    /**
+     * The index a sliding piece stops at for each ray and pattern of occupied hexagons along the
+     * ray at (ray << MAX_RAY_LENGTH) + pattern, or -1 if the slide is not legal
+     */
+    private static final byte[] SLIDES = new byte[(CELLS * DIRECTIONS) << MAX_RAY_LENGTH];
+
+    /**
+     * The direction from the start to the end index at start * CELLS + end or -1 if not in line
+     */
+    private static final byte[] DIRECTION_BETWEEN = new byte[CELLS * CELLS];
+
+    /**
+     * The hexagon index reflected about the center column
+     */
+    private static final int[] MIRROR = new int[CELLS];
+
+    /**
+     * The five bits of a grid row reversed, used to reflect a row of the occupancy mask
+     */
+    private static final int[] REVERSED_ROW = new int[1 << COLUMNS];
+
+    static
+    {
+        // The packed tables of the lunar board are copied from its generated hex shape
+        HexShape shape = HexShape.LUNAR;
+        int i;
+        for (i = 0; i < GRID.length; i++) GRID[i] = -1;
+        for (i = 0; i < CELLS; i++)
+        {
+            COLUMN[i] = shape.column(i);
+            ROW[i] = shape.row(i);
+            GRID[(COLUMN[i] * ROWS) + ROW[i]] = i;
+            MIRROR[i] = shape.mirror(i);
+        }
+        for (i = 0; i < REVERSED_ROW.length; i++) REVERSED_ROW[i] = Integer.reverse(i) >>> (32 - COLUMNS);
+        // Rays are padded with a bit that is never set in an occupancy mask
+        for (i = 0; i < RAYS.length; i++) RAYS[i] = PADDING;
+        for (i = 0; i < CELLS; i++)
+        {
+            for (int end = 0; end < CELLS; end++) DIRECTION_BETWEEN[(i * CELLS) + end] = (byte) shape.direction(i, end);
+            for (int dir = 0; dir < DIRECTIONS; dir++)
+            {
+                int ray = (i * DIRECTIONS) + dir;
+                int length = shape.rayLength(i, dir);
+                for (int step = 0; step < length; step++) RAYS[(ray << RAY_SHIFT) + step] = shape.ray(i, dir, step);
+                RAY_LENGTHS[ray] = length;
+                for (int pattern = 0; pattern < (1 << MAX_RAY_LENGTH); pattern++)
+                {
+                    // The piece stops before the first occupied hexagon, after moving at least one hexagon
+                    int blocker = Integer.numberOfTrailingZeros(pattern);
+                    int stop = (blocker < 1 || length <= blocker) ? -1 : RAYS[(ray << RAY_SHIFT) + blocker - 1];
+                    SLIDES[(ray << MAX_RAY_LENGTH) + pattern] = (byte) stop;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the column of the hexagon, zero-based.
+     *
+     * @param   index - The index of the hexagon
+     * @return  The column of the hexagon
+     */
+    public static int column(int index)
+    {
+        return COLUMN[index];
+    }
+
+    /**
+     * Returns the row of the hexagon, zero-based.
+     *
+     * @param   index - The index of the hexagon
+     * @return  The row of the hexagon
+     */
+    public static int row(int index)
+    {
+        return ROW[index];
+    }
+
+    /**
+     * Returns the index of the hexagon at the column and row.
+     *
+     * @param   column - The column of the hexagon
+     * @param   row - The row of the hexagon
+     * @return  The index of the hexagon or -1 if not on the board
+     */
+    public static int indexAt(int column, int row)
+    {
+        if (column < 0 || COLUMNS <= column || row < 0 || ROWS <= row) return -1;
+        return GRID[(column * ROWS) + row];
+    }
+
+    /**
+     * Returns the index of the hexagon adjacent to the given index in the direction.
+     *
+     * @param   index - The index of the hexagon
+     * @param   dir - The direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     * @return  The index of the adjacent hexagon or -1 if off the board
+     */
+    public static int neighbour(int index, int dir)
+    {
+        int ray = (index * DIRECTIONS) + dir;
+        return RAY_LENGTHS[ray] > 0 ? RAYS[ray << RAY_SHIFT] : -1;
+    }
+
+    /**
+     * Returns the direction from start index to end index.
+     *
+     * @param   start - Start index
+     * @param   end - End index
+     * @return  Direction where -1 = None, 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     */
+    public static int direction(int start, int end)
+    {
+        if (start < 0 || CELLS <= start || end < 0 || CELLS <= end) return -1;
+        return DIRECTION_BETWEEN[(start * CELLS) + end];
+    }
+
+    /**
+     * Returns the index a piece on the given hexagon stops at when sliding in a direction.
+     *
+     * @param   occupancy - The occupancy mask of the board
+     * @param   index - The index the sliding piece starts on
+     * @param   dir - The direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     * @return  The index the piece stops on or -1 if the slide is not legal
+     */
+    public static int slideDestination(int occupancy, int index, int dir)
+    {
+        int ray = (index * DIRECTIONS) + dir;
+        int start = ray << RAY_SHIFT;
+        int pattern = ((occupancy >>> RAYS[start]) & 1)
+                | (((occupancy >>> RAYS[start + 1]) & 1) << 1)
+                | (((occupancy >>> RAYS[start + 2]) & 1) << 2)
+                | (((occupancy >>> RAYS[start + 3]) & 1) << 3)
+                | (((occupancy >>> RAYS[start + 4]) & 1) << 4);
+        return SLIDES[(ray << MAX_RAY_LENGTH) + pattern];
+    }
+
+    /**
+     * Returns the mask of the empty hexagons along the ray up to the first piece or the edge.
+     *
+     * @param   occupancy - The occupancy mask of the board
+     * @param   index - The index the ray starts from
+     * @param   dir - The direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     * @return  The mask of the empty hexagons along the ray
+     */
+    public static int openRayMask(int occupancy, int index, int dir)
+    {
+        int ray = (index * DIRECTIONS) + dir;
+        int start = ray << RAY_SHIFT;
+        int end = start + RAY_LENGTHS[ray];
+        int mask = 0;
+        for (int i = start; i < end && (occupancy & (1 << RAYS[i])) == 0; i++)
+        {
+            mask |= 1 << RAYS[i];
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the hexagon reflected about the center column.
+     *
+     * @param   index - The index of the hexagon
+     * @return  The index of the reflected hexagon
+     */
+    public static int mirror(int index)
+    {
+        return MIRROR[index];
+    }
+
+    /**
+     * Returns the occupancy mask reflected about the center column.
+     *
+     * @param   occupancy - The occupancy mask of the board
+     * @return  The reflected occupancy mask
+     */
+    public static int mirrorMask(int occupancy)
+    {
+        int mask = REVERSED_ROW[occupancy & 31]
+                | (REVERSED_ROW[(occupancy >>> 5) & 31] << 5)
+                | (REVERSED_ROW[(occupancy >>> 10) & 31] << 10)
+                | (REVERSED_ROW[(occupancy >>> 15) & 31] << 15)
+                | (REVERSED_ROW[(occupancy >>> 20) & 31] << 20);
+        // Hexagons 25 and 26 swap places
+        return mask | ((occupancy >>> 1) & (1 << 25)) | ((occupancy & (1 << 25)) << 1);
+    }
+}
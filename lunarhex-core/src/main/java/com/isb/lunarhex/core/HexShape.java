@@ -0,0 +1,317 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The hex shape class generates the tables of the 27 hexagon lunar board from
+ * the hexagons it covers in a grid of columns with odd columns raised by half
+ * a hexagon, instead of the tables being written out by hand. The coordinate,
+ * ray, direction and mirror tables are generated once and hexagons are
+ * numbered row by row. The engine reads them through the packed copies in
+ * HexGeometry, and the renderer reads the layout and drawing order from here.
+ *
+ * @author Ian Baker
+ */
+public class HexShape
+{
+    /**
+     * Constants
+     */
+    public static final int DIRECTIONS = 6;
+
+    /**
+     * The 5 x 5 grid plus the two hexagons below columns 1 and 3 with the center at index 12
+     */
+    public static final HexShape LUNAR = lunar();
+
+    /**
+     * The number of hexagons
+     */
+    private final int cells;
+
+    /**
+     * The number of columns of the grid holding the shape
+     */
+    private final int columns;
+
+    /**
+     * The number of rows of the grid holding the shape
+     */
+    private final int rows;
+
+    /**
+     * The most hexagons along any ray, the stride between rays
+     */
+    private final int stride;
+
+    /**
+     * The column and row of each hexagon index
+     */
+    private final int[] column;
+    private final int[] row;
+
+    /**
+     * The hexagon index at row * columns + column or -1 if not on the board
+     */
+    private final int[] grid;
+
+    /**
+     * The position of each hexagon when the hexagons are numbered column by column
+     */
+    private final int[] columnOrder;
+
+    /**
+     * The hexagon at each position when the hexagons are drawn back to front
+     */
+    private final int[] drawOrder;
+
+    /**
+     * The ordered hexagon indices along each ray, the ray for an index and direction
+     * starts at ((index * 6) + direction) * stride
+     */
+    private final int[] rays;
+
+    /**
+     * The number of hexagons along the ray for (index * 6) + direction
+     */
+    private final int[] rayLengths;
+
+    /**
+     * The direction from the start to the end index at start * cells + end or -1 if not in line
+     */
+    private final byte[] directionBetween;
+
+    /**
+     * The hexagon index reflected about the center column or -1 if not on the board
+     */
+    private final int[] mirror;
+
+    /**
+     * Constructor for the shape, generating its tables.
+     *
+     * @param   columns - The number of columns of the grid
+     * @param   rows - The number of rows of the grid
+     * @param   onBoard - Whether the hexagon at row * columns + column is on the board
+     */
+    private HexShape(int columns, int rows, boolean[] onBoard)
+    {
+        this.columns = columns;
+        this.rows = rows;
+        grid = new int[columns * rows];
+        int count = 0;
+        for (int i = 0; i < grid.length; i++) grid[i] = onBoard[i] ? count++ : -1;
+        cells = count;
+        column = new int[cells];
+        row = new int[cells];
+        for (int i = 0; i < grid.length; i++)
+        {
+            if (grid[i] == -1) continue;
+            column[grid[i]] = i % columns;
+            row[grid[i]] = i / columns;
+        }
+        columnOrder = new int[cells];
+        count = 0;
+        for (int x = 0; x < columns; x++)
+        {
+            for (int y = 0; y < rows; y++)
+            {
+                if (indexAt(x, y) != -1) columnOrder[indexAt(x, y)] = count++;
+            }
+        }
+        drawOrder = new int[cells];
+        count = 0;
+        for (int half = 0; half < rows * 2; half++)
+        {
+            // Each row is drawn in two passes, the raised odd columns behind the even columns
+            for (int x = 1 - (half % 2); x < columns; x += 2)
+            {
+                if (indexAt(x, half / 2) != -1) drawOrder[count++] = indexAt(x, half / 2);
+            }
+        }
+        mirror = new int[cells];
+        for (int i = 0; i < cells; i++) mirror[i] = indexAt(columns - 1 - column[i], row[i]);
+        // A ray can not be longer than the larger side of the grid
+        stride = Math.max(columns, rows);
+        rays = new int[cells * DIRECTIONS * stride];
+        rayLengths = new int[cells * DIRECTIONS];
+        directionBetween = new byte[cells * cells];
+        for (int i = 0; i < directionBetween.length; i++) directionBetween[i] = -1;
+        for (int i = 0; i < cells; i++)
+        {
+            for (int dir = 0; dir < DIRECTIONS; dir++)
+            {
+                int ray = (i * DIRECTIONS) + dir;
+                int length = 0;
+                int x = column[i];
+                int y = row[i];
+                while (true)
+                {
+                    // Odd columns are raised, so diagonal moves change row depending on the column parity
+                    boolean even = (x % 2) == 0;
+                    switch (dir)
+                    {
+                        case 0: // Up           Y-1
+                            y--;
+                            break;
+                        case 1: // Down         Y+1
+                            y++;
+                            break;
+                        case 2: // Up-right     X-even? X+1 : X+1 Y-1
+                            if (!even) y--;
+                            x++;
+                            break;
+                        case 3: // Up-left      X-even? X-1 : X-1 Y-1
+                            if (!even) y--;
+                            x--;
+                            break;
+                        case 4: // Down-right   X-odd? X+1 : X+1 Y+1
+                            if (even) y++;
+                            x++;
+                            break;
+                        default: // Down-left   X-odd? X-1 : X-1 Y+1
+                            if (even) y++;
+                            x--;
+                            break;
+                    }
+                    int next = indexAt(x, y);
+                    if (next == -1) break;
+                    rays[(ray * stride) + length] = next;
+                    directionBetween[(i * cells) + next] = (byte) dir;
+                    length++;
+                }
+                rayLengths[ray] = length;
+            }
+        }
+    }
+
+    /**
+     * Returns the lunar board, a 5 x 5 grid plus the hexagons 25 and 26 below columns 1 and 3.
+     *
+     * @return  The lunar board shape
+     */
+    private static HexShape lunar()
+    {
+        boolean[] onBoard = new boolean[5 * 6];
+        for (int i = 0; i < 25; i++) onBoard[i] = true;
+        onBoard[25 + 1] = true;
+        onBoard[25 + 3] = true;
+        return new HexShape(5, 6, onBoard);
+    }
+
+    /**
+     * Returns the number of hexagons.
+     *
+     * @return  The number of hexagons
+     */
+    public int cells()
+    {
+        return cells;
+    }
+
+    /**
+     * Returns the column of the hexagon, zero-based.
+     *
+     * @param   index - The index of the hexagon
+     * @return  The column of the hexagon
+     */
+    public int column(int index)
+    {
+        return column[index];
+    }
+
+    /**
+     * Returns the row of the hexagon, zero-based.
+     *
+     * @param   index - The index of the hexagon
+     * @return  The row of the hexagon
+     */
+    public int row(int index)
+    {
+        return row[index];
+    }
+
+    /**
+     * Returns the index of the hexagon at the column and row.
+     *
+     * @param   x - The column of the hexagon
+     * @param   y - The row of the hexagon
+     * @return  The index of the hexagon or -1 if not on the board
+     */
+    public int indexAt(int x, int y)
+    {
+        if (x < 0 || columns <= x || y < 0 || rows <= y) return -1;
+        return grid[(y * columns) + x];
+    }
+
+    /**
+     * Returns the position of the hexagon when the hexagons are numbered column by
+     * column from the top, as the preview board draws them back to front.
+     *
+     * @param   index - The index of the hexagon
+     * @return  The position of the hexagon
+     */
+    public int columnOrder(int index)
+    {
+        return columnOrder[index];
+    }
+
+    /**
+     * Returns the hexagon drawn at the position when the game board is drawn back
+     * to front, the raised odd columns of each row before its even columns, so the
+     * lower hexagons overlap the ones behind them.
+     *
+     * @param   position - The position in the drawing order
+     * @return  The index of the hexagon
+     */
+    public int drawOrder(int position)
+    {
+        return drawOrder[position];
+    }
+
+    /**
+     * Returns the number of hexagons along the ray.
+     *
+     * @param   index - The index the ray starts from
+     * @param   dir - The direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     * @return  The number of hexagons along the ray
+     */
+    public int rayLength(int index, int dir)
+    {
+        return rayLengths[(index * DIRECTIONS) + dir];
+    }
+
+    /**
+     * Returns a hexagon along the ray.
+     *
+     * @param   index - The index the ray starts from
+     * @param   dir - The direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     * @param   step - The number of hexagons from the start less one, below the ray length
+     * @return  The index of the hexagon
+     */
+    public int ray(int index, int dir, int step)
+    {
+        return rays[(((index * DIRECTIONS) + dir) * stride) + step];
+    }
+
+    /**
+     * Returns the direction from start index to end index.
+     *
+     * @param   start - Start index
+     * @param   end - End index
+     * @return  Direction where -1 = None, 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     */
+    public int direction(int start, int end)
+    {
+        if (start < 0 || cells <= start || end < 0 || cells <= end) return -1;
+        return directionBetween[(start * cells) + end];
+    }
+
+    /**
+     * Returns the hexagon reflected about the center column.
+     *
+     * @param   index - The index of the hexagon
+     * @return  The index of the reflected hexagon or -1 if the shape is not symmetric there
+     */
+    public int mirror(int index)
+    {
+        return mirror[index];
+    }
+}
@@ -0,0 +1,241 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The hint cache keeps the best next move and the moves left for the most
+ * recently hinted board states, evicting the least recently used state when
+ * full. Entries live in fixed arrays linked in recency order, so lookups and
+ * stores allocate nothing.
+ *
+ * A hint is packed into an int, the moves left above the low byte holding
+ * the encoded move.
+ *
+ * @author Ian Baker
+ */
+public class HintCache
+{
+    /**
+     * Constants
+     */
+    public static final int MISS = -1;
+    public static final int NO_MOVE = 0xFF;
+    public static final int UNSOLVABLE = DistanceDatabase.UNSOLVABLE;
+    private static final int MOVE_MASK = 0xFF;
+    private static final int DISTANCE_SHIFT = 8;
+    private static final int NONE = -1;
+
+    /**
+     * The board state of each entry
+     */
+    private final long[] states;
+
+    /**
+     * The packed hint of each entry
+     */
+    private final int[] hints;
+
+    /**
+     * The entry used before and after each entry, NONE at the ends
+     */
+    private final int[] newer;
+    private final int[] older;
+
+    /**
+     * The entry of each cached board state
+     */
+    private final LongIntMap entries;
+
+    /**
+     * The most and least recently used entries
+     */
+    private int newest;
+    private int oldest;
+
+    /**
+     * The number of entries in use
+     */
+    private int size;
+
+    /**
+     * The number of lookups that found and did not find a hint
+     */
+    private int hits;
+    private int misses;
+
+    /**
+     * Constructor for the cache.
+     *
+     * @param   capacity - The number of board states kept
+     */
+    public HintCache(int capacity)
+    {
+        states = new long[capacity];
+        hints = new int[capacity];
+        newer = new int[capacity];
+        older = new int[capacity];
+        entries = new LongIntMap(capacity);
+        clear();
+    }
+
+    /**
+     * Packs the hint for a board state.
+     *
+     * @param   move - The encoded move to make, or NO_MOVE if solved or not solvable
+     * @param   distance - The fewest moves to solve the board, or UNSOLVABLE
+     * @return  The packed hint
+     */
+    public static int hint(int move, int distance)
+    {
+        return (distance << DISTANCE_SHIFT) | (move & MOVE_MASK);
+    }
+
+    /**
+     * Returns the move of the hint.
+     *
+     * @param   hint - The packed hint
+     * @return  The encoded move, piece * 6 + direction, or NO_MOVE
+     */
+    public static int move(int hint)
+    {
+        return hint & MOVE_MASK;
+    }
+
+    /**
+     * Returns the moves left of the hint.
+     *
+     * @param   hint - The packed hint
+     * @return  The fewest moves to solve the board or UNSOLVABLE
+     */
+    public static int distance(int hint)
+    {
+        return hint >>> DISTANCE_SHIFT;
+    }
+
+    /**
+     * Returns the hint for the board state and marks it most recently used.
+     *
+     * @param   state - The packed board state
+     * @return  The packed hint or MISS if not cached
+     */
+    public int get(long state)
+    {
+        int entry = entries.get(state, NONE);
+        if (entry == NONE)
+        {
+            misses++;
+            return MISS;
+        }
+        hits++;
+        touch(entry);
+        return hints[entry];
+    }
+
+    /**
+     * Stores the hint for the board state, evicting the least recently used state if full.
+     *
+     * @param   state - The packed board state
+     * @param   hint - The packed hint
+     */
+    public void put(long state, int hint)
+    {
+        int entry = entries.get(state, NONE);
+        if (entry == NONE)
+        {
+            if (size < states.length)
+            {
+                entry = size++;
+                link(entry);
+            }
+            else
+            {
+                entry = oldest;
+                entries.remove(states[entry]);
+                touch(entry);
+            }
+            states[entry] = state;
+            entries.put(state, entry);
+        }
+        else
+        {
+            touch(entry);
+        }
+        hints[entry] = hint;
+    }
+
+    /**
+     * Returns the number of lookups that found a hint.
+     *
+     * @return  The number of hits
+     */
+    public int hits()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a hint.
+     *
+     * @return  The number of misses
+     */
+    public int misses()
+    {
+        return misses;
+    }
+
+    /**
+     * Returns the number of cached board states.
+     *
+     * @return  The number of entries
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Removes every entry and resets the counters.
+     */
+    public void clear()
+    {
+        entries.clear();
+        newest = NONE;
+        oldest = NONE;
+        size = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Moves the entry to the most recently used end.
+     *
+     * @param   entry - The entry
+     */
+    private void touch(int entry)
+    {
+        if (entry == newest) return;
+        // Unlink, the entry is not the newest so it has a newer entry
+        if (older[entry] == NONE)
+        {
+            oldest = newer[entry];
+        }
+        else
+        {
+            newer[older[entry]] = newer[entry];
+        }
+        older[newer[entry]] = older[entry];
+        link(entry);
+    }
+
+    /**
+     * Links the entry as the most recently used.
+     *
+     * @param   entry - The entry
+     */
+    private void link(int entry)
+    {
+        older[entry] = newest;
+        newer[entry] = NONE;
+        if (newest != NONE) newer[newest] = entry;
+        newest = entry;
+        if (oldest == NONE) oldest = entry;
+    }
+}
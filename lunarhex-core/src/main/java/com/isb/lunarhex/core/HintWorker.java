@@ -0,0 +1,185 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The hint worker solves boards for hints on a background thread so the
+ * frame loop never waits on a solver. One board is worked on at a time, a
+ * newer request replaces an older one and a cancelled request never delivers
+ * its result. The thread is started on the first request and waits idle
+ * between requests until the worker is shut down.
+ *
+ * @author Ian Baker
+ */
+public class HintWorker implements Runnable
+{
+    /**
+     * The result delivered for a board that can not be solved
+     */
+    public static final long[] UNSOLVABLE = new long[0];
+
+    /**
+     * The solver used by the worker thread only
+     */
+    private final Solver solver;
+
+    /**
+     * The worker thread or null if not started or shut down
+     */
+    private Thread thread;
+
+    /**
+     * The board state waiting to be solved or BoardState.INVALID
+     */
+    private long pending;
+
+    /**
+     * The number of the latest request, results of older requests are dropped
+     */
+    private int request;
+
+    /**
+     * The result of the latest request or null if not finished
+     */
+    private long[] result;
+
+    /**
+     * Whether the latest request is waiting or being solved
+     */
+    private boolean busy;
+
+    /**
+     * Constructor for the worker.
+     *
+     * @param   solver - The solver, used only by the worker thread from now on
+     */
+    public HintWorker(Solver solver)
+    {
+        this.solver = solver;
+        pending = BoardState.INVALID;
+    }
+
+    /**
+     * Requests the shortest path of the board state, replacing any earlier request.
+     *
+     * @param   state - The packed board state
+     */
+    public synchronized void submit(long state)
+    {
+        request++;
+        pending = state;
+        result = null;
+        busy = true;
+        if (thread == null)
+        {
+            thread = new Thread(this, "HintWorker");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Cancels the current request, its result will not be delivered.
+     */
+    public synchronized void cancel()
+    {
+        request++;
+        pending = BoardState.INVALID;
+        result = null;
+        busy = false;
+    }
+
+    /**
+     * Returns whether a request is waiting for its result.
+     *
+     * @return  Whether the worker is busy
+     */
+    public synchronized boolean isBusy()
+    {
+        return busy;
+    }
+
+    /**
+     * Returns the result of the request once, when finished.
+     *
+     * @return  The shortest path from the requested board, UNSOLVABLE, or null if not finished
+     */
+    public synchronized long[] poll()
+    {
+        long[] path = result;
+        if (path != null)
+        {
+            result = null;
+            busy = false;
+        }
+        return path;
+    }
+
+    /**
+     * Cancels the current request, stops the worker thread and waits for it to
+     * finish. The solver is interrupted, so the wait is short when the solver
+     * checks for interruption. A later request starts a new thread.
+     */
+    public void shutdown()
+    {
+        Thread stopping;
+        synchronized (this)
+        {
+            cancel();
+            stopping = thread;
+            thread = null;
+            notifyAll();
+        }
+        if (stopping == null) return;
+        stopping.interrupt();
+        boolean retry = true;
+        while (retry)
+        {
+            try
+            {
+                stopping.join();
+                retry = false;
+            }
+            catch (InterruptedException e)
+            {
+                // Retry
+            }
+        }
+    }
+
+    /**
+     * Solves requested boards until the worker is shut down.
+     */
+    @Override
+    public void run()
+    {
+        Thread current = Thread.currentThread();
+        while (true)
+        {
+            long state;
+            int id;
+            synchronized (this)
+            {
+                while (pending == BoardState.INVALID && thread == current)
+                {
+                    try
+                    {
+                        wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                }
+                if (thread != current) return;
+                state = pending;
+                pending = BoardState.INVALID;
+                id = request;
+            }
+            long[] path = solver.solve(state);
+            synchronized (this)
+            {
+                if (thread == current && id == request) result = (path == null) ? UNSOLVABLE : path;
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The iterative deepening solver finds a shortest move sequence with IDA*,
+ * a depth first search repeated with a growing bound on the moves made plus
+ * a lower bound on the moves left. Memory use is fixed, only the current path
+ * and a transposition table of recently visited layouts are kept.
+ *
+ * The lower bound is the number of slides red needs to reach the center if
+ * it could stop on any hexagon, raised to two when red is in line with the
+ * center but the current pieces do not stop it there.
+ *
+ * @author Ian Baker
+ */
+public class IterativeDeepeningSolver implements Solver
+{
+    /**
+     * Constants
+     */
+    public static final int MAX_DEPTH = 64;
+    private static final int DEFAULT_TABLE_BITS = 15;
+
+    /**
+     * The fewest slides red needs to reach the center from each hexagon when it can stop anywhere
+     */
+    private static final int[] LINE_DISTANCE = new int[BoardState.CELLS];
+
+    static
+    {
+        int[] queue = new int[BoardState.CELLS];
+        for (int i = 0; i < BoardState.CELLS; i++) LINE_DISTANCE[i] = -1;
+        LINE_DISTANCE[BoardState.CENTER] = 0;
+        queue[0] = BoardState.CENTER;
+        int tail = 1;
+        for (int head = 0; head < tail; head++)
+        {
+            for (int i = 0; i < BoardState.CELLS; i++)
+            {
+                if (LINE_DISTANCE[i] == -1 && HexGeometry.direction(i, queue[head]) != -1)
+                {
+                    LINE_DISTANCE[i] = LINE_DISTANCE[queue[head]] + 1;
+                    queue[tail++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * The recently visited layouts
+     */
+    private final TranspositionTable table;
+
+    /**
+     * The layouts along the current path, by depth
+     */
+    private final long[] path;
+
+    /**
+     * The bound on moves made plus moves left for the current iteration
+     */
+    private int threshold;
+
+    /**
+     * The smallest estimate that went over the threshold, the threshold for the next iteration
+     */
+    private int nextThreshold;
+
+    /**
+     * The number of the current iteration, stamped on visited layouts
+     */
+    private int iteration;
+
+    /**
+     * The number of moves in the solution found
+     */
+    private int length;
+
+    /**
+     * The number of layouts expanded by the last search
+     */
+    private int nodes;
+
+    /**
+     * Constructor for the solver with the default table size.
+     */
+    public IterativeDeepeningSolver()
+    {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Constructor for the solver.
+     *
+     * @param   tableBits - The transposition table holds 2 ^ tableBits layouts
+     */
+    public IterativeDeepeningSolver(int tableBits)
+    {
+        table = new TranspositionTable(tableBits);
+        path = new long[MAX_DEPTH + 1];
+    }
+
+    /**
+     * Finds a shortest sequence of moves that solves the board.
+     *
+     * @param   state - The packed board state
+     * @return  The board states from the given state to the solved board or null if not solvable
+     */
+    @Override
+    public long[] solve(long state)
+    {
+        nodes = 0;
+        long start = Layout.of(state);
+        threshold = estimate(start);
+        while (threshold <= MAX_DEPTH)
+        {
+            iteration++;
+            nextThreshold = Integer.MAX_VALUE;
+            if (search(start, 0))
+            {
+                long[] layouts = new long[length + 1];
+                System.arraycopy(path, 0, layouts, 0, length + 1);
+                return Layout.replay(state, layouts);
+            }
+            // Nothing went over the threshold, every reachable layout was visited without solving
+            if (nextThreshold == Integer.MAX_VALUE) return null;
+            threshold = nextThreshold;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of layouts expanded by the last search.
+     *
+     * @return  The number of expanded layouts
+     */
+    @Override
+    public int nodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Searches below the layout for a solution within the threshold.
+     *
+     * @param   layout - The layout
+     * @param   depth - The number of moves made to reach the layout
+     * @return  Whether a solution was found
+     */
+    private boolean search(long layout, int depth)
+    {
+        int estimate = depth + estimate(layout);
+        if (estimate > threshold)
+        {
+            nextThreshold = Math.min(nextThreshold, estimate);
+            return false;
+        }
+        path[depth] = layout;
+        if (Layout.isSolved(layout))
+        {
+            length = depth;
+            return true;
+        }
+        // A layout already searched this iteration with as many moves left has nothing new below it
+        if (!table.visit(Layout.canonical(layout), depth, iteration)) return false;
+        nodes++;
+        int red = Layout.red(layout);
+        int pieces = Layout.occupancy(layout) & ~(1 << red);
+        int index = red;
+        while (true)
+        {
+            // Red first, as the last move of every solution moves red
+            for (int dir = 0; dir < BoardState.DIRECTIONS; dir++)
+            {
+                long next = Layout.slide(layout, index, dir);
+                if (next != BoardState.INVALID && search(next, depth + 1)) return true;
+            }
+            if (pieces == 0) break;
+            index = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a lower bound on the moves needed to solve the layout.
+     *
+     * @param   layout - The layout
+     * @return  The lower bound on the moves left
+     */
+    static int estimate(long layout)
+    {
+        int red = Layout.red(layout);
+        int distance = LINE_DISTANCE[red];
+        if (distance != 1) return distance;
+        // One move only solves it if red stops on the center
+        int dir = HexGeometry.direction(red, BoardState.CENTER);
+        return HexGeometry.slideDestination(Layout.occupancy(layout), red, dir) == BoardState.CENTER ? 1 : 2;
+    }
+
+    /**
+     * A fixed size table of the layouts visited, with the fewest moves they were reached
+     * with and the iteration they were reached in. Newer layouts replace older ones.
+     */
+    private static class TranspositionTable
+    {
+        /**
+         * The canonical layout stored in each slot
+         */
+        final long[] keys;
+
+        /**
+         * The fewest moves the layout in each slot was reached with
+         */
+        final byte[] depths;
+
+        /**
+         * The iteration the layout in each slot was reached in
+         */
+        final int[] iterations;
+
+        /**
+         * The mask to wrap slot indices with, capacity - 1
+         */
+        final int mask;
+
+        /**
+         * Constructor for the table.
+         *
+         * @param   bits - The table holds 2 ^ bits layouts
+         */
+        TranspositionTable(int bits)
+        {
+            keys = new long[1 << bits];
+            depths = new byte[1 << bits];
+            iterations = new int[1 << bits];
+            mask = (1 << bits) - 1;
+        }
+
+        /**
+         * Records the visit of the layout unless it was already reached this iteration
+         * with as few moves.
+         *
+         * @param   key - The canonical layout
+         * @param   depth - The number of moves made to reach the layout
+         * @param   iteration - The number of the current iteration
+         * @return  Whether the layout should be searched
+         */
+        boolean visit(long key, int depth, int iteration)
+        {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            int slot = (int) (mixed >>> 32) & mask;
+            if (keys[slot] == key && iterations[slot] == iteration && depths[slot] <= depth) return false;
+            keys[slot] = key;
+            depths[slot] = (byte) depth;
+            iterations[slot] = iteration;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The layout class reduces a board state to what matters for solving it, the
+ * red piece and the set of hexagons holding a helper piece. Helper colors are
+ * interchangeable and the board is symmetric about the center column, so the
+ * canonical layout is the smaller of the layout and its reflection. The
+ * methods are static and the class should not need to be constructed.
+ *
+ * Bits 0-26 hold the occupancy mask of all pieces including red and bits
+ * 27-31 hold the index of the red piece.
+ *
+ * @author Ian Baker
+ */
+public class Layout
+{
+    /**
+     * Constants
+     */
+    public static final int MAX_PREVIOUS = 144;
+    private static final int RED_SHIFT = BoardState.CELLS;
+    private static final int INDEX_MASK = 31;
+
+    /**
+     * Returns the layout of the board state.
+     *
+     * @param   state - The packed board state
+     * @return  The layout of the board
+     */
+    public static long of(long state)
+    {
+        return create(BoardState.position(state, 0), BoardState.occupancy(state));
+    }
+
+    /**
+     * Returns the layout with the red piece and occupied hexagons.
+     *
+     * @param   red - The index of the red piece
+     * @param   occupancy - The occupancy mask of all pieces including red
+     * @return  The layout
+     */
+    public static long create(int red, int occupancy)
+    {
+        return (((long) red) << RED_SHIFT) | occupancy;
+    }
+
+    /**
+     * Returns the canonical layout of the board state.
+     *
+     * @param   state - The packed board state
+     * @return  The canonical layout of the board
+     */
+    public static long canonicalOf(long state)
+    {
+        return canonical(of(state));
+    }
+
+    /**
+     * Returns the smaller of the layout and its reflection.
+     *
+     * @param   layout - The layout
+     * @return  The canonical layout
+     */
+    public static long canonical(long layout)
+    {
+        return Math.min(layout, mirror(layout));
+    }
+
+    /**
+     * Returns the layout reflected about the center column.
+     *
+     * @param   layout - The layout
+     * @return  The reflected layout
+     */
+    public static long mirror(long layout)
+    {
+        return create(HexGeometry.mirror(red(layout)), HexGeometry.mirrorMask(occupancy(layout)));
+    }
+
+    /**
+     * Returns the index of the red piece.
+     *
+     * @param   layout - The layout
+     * @return  The index of the red piece
+     */
+    public static int red(long layout)
+    {
+        return (int) (layout >>> RED_SHIFT) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the occupancy mask of all pieces including red.
+     *
+     * @param   layout - The layout
+     * @return  The occupancy mask
+     */
+    public static int occupancy(long layout)
+    {
+        return (int) layout & BoardState.OCCUPANCY_MASK;
+    }
+
+    /**
+     * Returns the occupancy mask of the helper pieces.
+     *
+     * @param   layout - The layout
+     * @return  The occupancy mask without the red piece
+     */
+    public static int blockers(long layout)
+    {
+        return occupancy(layout) & ~(1 << red(layout));
+    }
+
+    /**
+     * Returns whether the red piece is on the center hexagon.
+     *
+     * @param   layout - The layout
+     * @return  Whether the layout is solved
+     */
+    public static boolean isSolved(long layout)
+    {
+        return red(layout) == BoardState.CENTER;
+    }
+
+    /**
+     * Returns the layout after sliding the piece on the hexagon in a direction.
+     *
+     * @param   layout - The layout
+     * @param   index - The index of the piece to slide
+     * @param   dir - The direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL
+     * @return  The layout after the slide or BoardState.INVALID if the slide is not legal
+     */
+    public static long slide(long layout, int index, int dir)
+    {
+        int occupancy = occupancy(layout);
+        int end = HexGeometry.slideDestination(occupancy, index, dir);
+        if (end == -1) return BoardState.INVALID;
+        int red = red(layout);
+        return create(red == index ? end : red, occupancy ^ (1 << index) ^ (1 << end));
+    }
+
+    /**
+     * Finds every layout that results in the given layout after one slide. A piece
+     * resting against another piece could have slid from any empty hexagon behind it.
+     *
+     * @param   layout - The layout
+     * @param   results - Filled with the previous layouts, at least MAX_PREVIOUS long
+     * @return  The number of previous layouts
+     */
+    public static int previous(long layout, long[] results)
+    {
+        int occupancy = occupancy(layout);
+        int red = red(layout);
+        int count = 0;
+        int pieces = occupancy;
+        while (pieces != 0)
+        {
+            int index = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            for (int dir = 0; dir < BoardState.DIRECTIONS; dir++)
+            {
+                // The piece only stopped here if the next hexagon holds a piece
+                int stop = HexGeometry.neighbour(index, dir);
+                if (stop == -1 || (occupancy & (1 << stop)) == 0) continue;
+                int origins = HexGeometry.openRayMask(occupancy, index, HexGeometry.OPPOSITE[dir]);
+                while (origins != 0)
+                {
+                    int origin = Integer.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    results[count++] = create(red == index ? origin : red, occupancy ^ (1 << index) ^ (1 << origin));
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a board state with the layout, the helper pieces are given colors in
+     * the order of the hexagons they are on.
+     *
+     * @param   layout - The layout
+     * @return  The packed board state
+     */
+    public static long toState(long layout)
+    {
+        int[] positions = new int[BoardState.MAX_PIECES];
+        int count = 0;
+        positions[count++] = red(layout);
+        int blockers = blockers(layout);
+        while (blockers != 0 && count < BoardState.MAX_PIECES)
+        {
+            positions[count++] = Integer.numberOfTrailingZeros(blockers);
+            blockers &= blockers - 1;
+        }
+        return BoardState.create(positions, count);
+    }
+
+    /**
+     * Returns the move from the board state that results in the layout, keeping the
+     * colors of the pieces. The layout may be reflected, as for a canonical layout.
+     *
+     * @param   state - The packed board state
+     * @param   layout - The layout after one move, or its reflection
+     * @return  The encoded move, piece * 6 + direction, or -1 if no move results in the layout
+     */
+    public static int moveTo(long state, long layout)
+    {
+        long mirrored = mirror(layout);
+        for (int move = 0; move < BoardState.pieceCount(state) * BoardState.DIRECTIONS; move++)
+        {
+            long result = BoardState.afterMove(state, move);
+            if (result == BoardState.INVALID) continue;
+            long next = of(result);
+            if (next == layout || next == mirrored) return move;
+        }
+        return -1;
+    }
+
+    /**
+     * Replays a sequence of layouts as colored board states, the layouts may be
+     * reflected as found by a search over canonical layouts.
+     *
+     * @param   state - The packed board state with the first layout
+     * @param   layouts - The layouts each one move apart
+     * @return  The board states for each layout
+     */
+    public static long[] replay(long state, long[] layouts)
+    {
+        long[] states = new long[layouts.length];
+        states[0] = state;
+        for (int i = 1; i < layouts.length; i++)
+        {
+            states[i] = BoardState.afterMove(states[i - 1], moveTo(states[i - 1], layouts[i]));
+        }
+        return states;
+    }
+}
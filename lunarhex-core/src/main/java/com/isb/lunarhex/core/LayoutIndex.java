@@ -0,0 +1,106 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The layout index class numbers the layouts with a given number of pieces
+ * from 0 to size - 1 so that per layout data can be kept in flat arrays and
+ * files. The index is red * C(26, helpers) plus the rank of the helper
+ * hexagons in the combinatorial number system. The methods are static and
+ * the class should not need to be constructed.
+ *
+ * @author Ian Baker
+ */
+public class LayoutIndex
+{
+    /**
+     * Constants
+     */
+    private static final int OTHER_CELLS = BoardState.CELLS - 1;
+
+    /**
+     * The binomial coefficient C(n, k) at [n][k], zero when k is larger than n
+     */
+    private static final int[][] BINOMIAL = new int[BoardState.CELLS + 1][BoardState.MAX_PIECES + 1];
+
+    static
+    {
+        for (int n = 0; n <= BoardState.CELLS; n++)
+        {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= BoardState.MAX_PIECES; k++)
+            {
+                BINOMIAL[n][k] = (n == 0) ? 0 : BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    /**
+     * Returns the number of layouts with the number of pieces.
+     *
+     * @param   pieces - The number of pieces including red
+     * @return  The number of layouts
+     */
+    public static int size(int pieces)
+    {
+        return BoardState.CELLS * BINOMIAL[OTHER_CELLS][pieces - 1];
+    }
+
+    /**
+     * Returns the index of the layout among the layouts with as many pieces.
+     *
+     * @param   layout - The layout
+     * @return  The index of the layout
+     */
+    public static int rank(long layout)
+    {
+        int red = Layout.red(layout);
+        int blockers = Layout.blockers(layout);
+        // Number the other hexagons 0-25 by closing the gap left by red
+        int others = (blockers & ((1 << red) - 1)) | ((blockers >>> (red + 1)) << red);
+        int rank = 0;
+        int k = 1;
+        while (others != 0)
+        {
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(others)][k++];
+            others &= others - 1;
+        }
+        return (red * BINOMIAL[OTHER_CELLS][k - 1]) + rank;
+    }
+
+    /**
+     * Returns the layout at the index among the layouts with the number of pieces.
+     *
+     * @param   pieces - The number of pieces including red
+     * @param   index - The index of the layout
+     * @return  The layout
+     */
+    public static long unrank(int pieces, int index)
+    {
+        int helpers = pieces - 1;
+        int combinations = BINOMIAL[OTHER_CELLS][helpers];
+        int red = index / combinations;
+        int rank = index - (red * combinations);
+        int others = 0;
+        int cell = OTHER_CELLS - 1;
+        for (int k = helpers; k > 0; k--)
+        {
+            while (BINOMIAL[cell][k] > rank) cell--;
+            rank -= BINOMIAL[cell][k];
+            others |= 1 << cell;
+            cell--;
+        }
+        int blockers = (others & ((1 << red) - 1)) | ((others >>> red) << (red + 1));
+        return Layout.create(red, blockers | (1 << red));
+    }
+
+    /**
+     * Returns the index range start of the layouts with red on the given hexagon.
+     *
+     * @param   pieces - The number of pieces including red
+     * @param   red - The index of the red piece
+     * @return  The index of the first layout with red on the hexagon
+     */
+    public static int first(int pieces, int red)
+    {
+        return red * BINOMIAL[OTHER_CELLS][pieces - 1];
+    }
+}
@@ -0,0 +1,247 @@
+package com.isb.lunarhex.core;
+
+import java.util.Arrays;
+
+/**
+ * The long int map is an open addressing hash map from primitive long keys,
+ * such as board states or Zobrist hashes, to int values. Nothing is allocated
+ * on lookups or puts unless the map has to grow, and clearing keeps the
+ * capacity so the map can be reused.
+ *
+ * @author Ian Baker
+ */
+public class LongIntMap
+{
+    /**
+     * Constants
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * The keys of each slot
+     */
+    private long[] keys;
+
+    /**
+     * The values of each slot
+     */
+    private int[] values;
+
+    /**
+     * Whether each slot holds an entry
+     */
+    private boolean[] used;
+
+    /**
+     * The mask to wrap slot indices with, capacity - 1
+     */
+    private int mask;
+
+    /**
+     * The number of entries in the map
+     */
+    private int size;
+
+    /**
+     * The number of entries the map holds before growing
+     */
+    private int threshold;
+
+    /**
+     * Constructor for the map.
+     *
+     * @param   expectedSize - The number of entries expected to be stored
+     */
+    public LongIntMap(int expectedSize)
+    {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) capacity <<= 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Returns the value of the key.
+     *
+     * @param   key - The key to look up
+     * @param   defaultValue - The value to return if the key is not in the map
+     * @return  The value of the key or the default value
+     */
+    public int get(long key, int defaultValue)
+    {
+        int slot = slot(key);
+        while (used[slot])
+        {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns whether the key is in the map.
+     *
+     * @param   key - The key to look up
+     * @return  Whether the key is in the map
+     */
+    public boolean containsKey(long key)
+    {
+        int slot = slot(key);
+        while (used[slot])
+        {
+            if (keys[slot] == key) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Stores the value of the key.
+     *
+     * @param   key - The key to store
+     * @param   value - The value to store
+     * @return  True if the key was added, false if an existing value was replaced
+     */
+    public boolean put(long key, int value)
+    {
+        int slot = slot(key);
+        while (used[slot])
+        {
+            if (keys[slot] == key)
+            {
+                values[slot] = value;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size > threshold) grow();
+        return true;
+    }
+
+    /**
+     * Stores the value of the key unless the key is already in the map.
+     *
+     * @param   key - The key to store
+     * @param   value - The value to store
+     * @return  True if the key was added, false if the key was already in the map
+     */
+    public boolean putIfAbsent(long key, int value)
+    {
+        int slot = slot(key);
+        while (used[slot])
+        {
+            if (keys[slot] == key) return false;
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size > threshold) grow();
+        return true;
+    }
+
+    /**
+     * Removes the key from the map.
+     *
+     * @param   key - The key to remove
+     * @return  True if the key was in the map
+     */
+    public boolean remove(long key)
+    {
+        int slot = slot(key);
+        while (used[slot])
+        {
+            if (keys[slot] == key)
+            {
+                // Shift later entries of the probe run back so lookups do not stop at the hole
+                int hole = slot;
+                int next = (slot + 1) & mask;
+                while (used[next])
+                {
+                    if (((next - slot(keys[next])) & mask) >= ((next - hole) & mask))
+                    {
+                        keys[hole] = keys[next];
+                        values[hole] = values[next];
+                        hole = next;
+                    }
+                    next = (next + 1) & mask;
+                }
+                used[hole] = false;
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return  The number of entries
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Removes all entries while keeping the capacity.
+     */
+    public void clear()
+    {
+        if (size > 0)
+        {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the starting slot of the key.
+     *
+     * @param   key - The key
+     * @return  The slot to start probing from
+     */
+    private int slot(long key)
+    {
+        // Mix the bits so packed states with few changing bits spread over the table
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (key ^ (key >>> 33)) & mask;
+    }
+
+    /**
+     * Allocates empty tables of the given capacity.
+     *
+     * @param   capacity - The number of slots, a power of two
+     */
+    private void allocate(int capacity)
+    {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+        size = 0;
+    }
+
+    /**
+     * Doubles the capacity and re-inserts the entries.
+     */
+    private void grow()
+    {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldUsed[i]) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
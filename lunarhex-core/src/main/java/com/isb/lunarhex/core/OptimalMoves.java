@@ -0,0 +1,145 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The optimal moves class lists every move that keeps a board on a shortest
+ * solution and counts the distinct shortest solutions, using the distance
+ * database. A move is optimal when it lowers the distance by one, so the
+ * count of a layout is the sum of the counts of its optimal successors. The
+ * counts are memoized by canonical layout, as a layout and its mirror image
+ * have the same number of solutions, and kept between calls until more than
+ * MAX_MEMO layouts are memoized, when they are forgotten before the next count.
+ *
+ * @author Ian Baker
+ */
+public class OptimalMoves
+{
+    /**
+     * Constants
+     */
+    public static final int MAX_MEMO = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The fewest moves to solve every layout
+     */
+    private final DistanceDatabase distances;
+
+    /**
+     * The counts index of each canonical layout counted so far
+     */
+    private final LongIntMap memo;
+
+    /**
+     * The number of shortest solutions of each counted layout
+     */
+    private long[] counts;
+
+    /**
+     * Constructor for the optimal moves.
+     *
+     * @param   distances - The fewest moves to solve every layout
+     */
+    public OptimalMoves(DistanceDatabase distances)
+    {
+        this.distances = distances;
+        memo = new LongIntMap(INITIAL_CAPACITY);
+        counts = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Generates every move that starts a shortest solution of the board.
+     *
+     * @param   state - The packed board state
+     * @param   moves - Filled with the encoded moves, piece * 6 + direction, sized at least BoardState.MAX_MOVES
+     * @return  The number of moves, 0 if solved, not solvable or unknown
+     */
+    public int moves(long state, int[] moves)
+    {
+        int distance = distances.distanceOf(state);
+        if (distance == DistanceDatabase.UNKNOWN || distance == DistanceDatabase.UNSOLVABLE || distance == 0) return 0;
+        int count = 0;
+        for (int move = 0; move < BoardState.pieceCount(state) * BoardState.DIRECTIONS; move++)
+        {
+            long result = BoardState.afterMove(state, move);
+            if (result != BoardState.INVALID && distances.distanceOf(result) == distance - 1) moves[count++] = move;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of distinct shortest solutions of the board.
+     *
+     * @param   state - The packed board state
+     * @return  The number of solutions, 1 if solved, 0 if not solvable or unknown, Long.MAX_VALUE if too many to count
+     */
+    public long count(long state)
+    {
+        long layout = Layout.of(state);
+        int distance = distances.distance(layout);
+        if (distance == DistanceDatabase.UNKNOWN || distance == DistanceDatabase.UNSOLVABLE) return 0;
+        // Bound the memo, a single count still memoizes every layout it reaches
+        if (memo.size() > MAX_MEMO) clear();
+        return count(Layout.canonical(layout), distance);
+    }
+
+    /**
+     * Returns whether the board has exactly one shortest solution.
+     *
+     * @param   state - The packed board state
+     * @return  Whether the shortest solution is unique
+     */
+    public boolean isUnique(long state)
+    {
+        return count(state) == 1;
+    }
+
+    /**
+     * Forgets the memoized counts.
+     */
+    public void clear()
+    {
+        memo.clear();
+    }
+
+    /**
+     * Returns the number of shortest solutions of the canonical layout.
+     *
+     * @param   layout - The canonical layout
+     * @param   distance - The distance of the layout
+     * @return  The number of solutions, saturated at Long.MAX_VALUE
+     */
+    private long count(long layout, int distance)
+    {
+        if (distance == 0) return 1;
+        int entry = memo.get(layout, -1);
+        if (entry != -1) return counts[entry];
+        long total = 0;
+        int pieces = Layout.occupancy(layout);
+        while (pieces != 0)
+        {
+            int index = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            for (int dir = 0; dir < BoardState.DIRECTIONS; dir++)
+            {
+                long next = Layout.slide(layout, index, dir);
+                if (next == BoardState.INVALID || distances.distance(next) != distance - 1) continue;
+                total += count(Layout.canonical(next), distance - 1);
+                if (total < 0) total = Long.MAX_VALUE;
+            }
+        }
+        if (memo.size() == counts.length) grow();
+        memo.put(layout, memo.size());
+        counts[memo.size() - 1] = total;
+        return total;
+    }
+
+    /**
+     * Doubles the capacity of the counts.
+     */
+    private void grow()
+    {
+        long[] newCounts = new long[counts.length * 2];
+        System.arraycopy(counts, 0, newCounts, 0, counts.length);
+        counts = newCounts;
+    }
+}
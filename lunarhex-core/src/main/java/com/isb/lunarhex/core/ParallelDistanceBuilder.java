@@ -0,0 +1,258 @@
+package com.isb.lunarhex.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The parallel distance builder computes the same distances as the distance
+ * database builder with a level by level breadth first search split across a
+ * fork join pool. Each level is a bitset over the layout index, the words of
+ * the frontier are divided between tasks and layouts are claimed in a shared
+ * atomic bitset, so no locks are taken. Meant for the offline tools, the app
+ * only reads the finished database.
+ *
+ * @author Ian Baker
+ */
+public class ParallelDistanceBuilder
+{
+    /**
+     * Constants
+     */
+    private static final int WORDS_PER_TASK = 256;
+
+    /**
+     * The pool the levels are expanded on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for the builder.
+     *
+     * @param   pool - The pool the levels are expanded on
+     */
+    public ParallelDistanceBuilder(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * Computes the distances of every layout, indexed by number of pieces and layout index.
+     *
+     * @return  The distances of the layouts with each number of pieces
+     */
+    public byte[][] build()
+    {
+        byte[][] distances = new byte[DistanceDatabase.MAX_PIECES + 1][];
+        for (int pieces = DistanceDatabase.MIN_PIECES; pieces <= DistanceDatabase.MAX_PIECES; pieces++)
+        {
+            distances[pieces] = build(pieces);
+        }
+        return distances;
+    }
+
+    /**
+     * Computes the distances of every layout with the number of pieces.
+     *
+     * @param   pieces - The number of pieces including red
+     * @return  The distances indexed by layout index
+     */
+    public byte[] build(int pieces)
+    {
+        int size = LayoutIndex.size(pieces);
+        int words = (size + 63) >>> 6;
+        byte[] distances = new byte[size];
+        Arrays.fill(distances, (byte) DistanceDatabase.UNSOLVABLE);
+        AtomicLongArray visited = new AtomicLongArray(words);
+        AtomicLongArray frontier = new AtomicLongArray(words);
+        // The solved layouts are the contiguous range with red on the center
+        int first = LayoutIndex.first(pieces, BoardState.CENTER);
+        int last = LayoutIndex.first(pieces, BoardState.CENTER + 1);
+        for (int i = first; i < last; i++)
+        {
+            distances[i] = 0;
+            setBit(visited, i);
+            setBit(frontier, i);
+        }
+        for (int distance = 1; ; distance++)
+        {
+            if (distance >= DistanceDatabase.UNSOLVABLE)
+            {
+                throw new IllegalStateException("Distance does not fit in " + DistanceDatabase.BITS + " bits");
+            }
+            AtomicLongArray next = new AtomicLongArray(words);
+            Level level = new Level(pieces, distance, distances, visited, frontier, next);
+            pool.invoke(new Expand(level, 0, words));
+            if (level.isEmpty()) break;
+            frontier = next;
+        }
+        return distances;
+    }
+
+    /**
+     * Sets the bit of the index.
+     *
+     * @param   bits - The bitset
+     * @param   index - The index of the bit
+     * @return  True if the bit was clear and this call set it
+     */
+    private static boolean setBit(AtomicLongArray bits, int index)
+    {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true)
+        {
+            long value = bits.get(word);
+            if ((value & mask) != 0) return false;
+            if (bits.compareAndSet(word, value, value | mask)) return true;
+        }
+    }
+
+    /**
+     * The shared state of the expansion of one level.
+     */
+    private static class Level
+    {
+        /**
+         * The number of pieces including red
+         */
+        final int pieces;
+
+        /**
+         * The distance of the layouts found on this level
+         */
+        final int distance;
+
+        /**
+         * The distances indexed by layout index, each entry written once by the task claiming it
+         */
+        final byte[] distances;
+
+        /**
+         * The layouts reached so far
+         */
+        final AtomicLongArray visited;
+
+        /**
+         * The layouts of the previous level
+         */
+        final AtomicLongArray frontier;
+
+        /**
+         * The layouts found on this level
+         */
+        final AtomicLongArray next;
+
+        /**
+         * Whether any layout was found on this level, written only to set it
+         */
+        volatile boolean found;
+
+        /**
+         * Constructor for the level.
+         *
+         * @param   pieces - The number of pieces including red
+         * @param   distance - The distance of the layouts found on this level
+         * @param   distances - The distances indexed by layout index
+         * @param   visited - The layouts reached so far
+         * @param   frontier - The layouts of the previous level
+         * @param   next - The layouts found on this level
+         */
+        Level(int pieces, int distance, byte[] distances, AtomicLongArray visited, AtomicLongArray frontier, AtomicLongArray next)
+        {
+            this.pieces = pieces;
+            this.distance = distance;
+            this.distances = distances;
+            this.visited = visited;
+            this.frontier = frontier;
+            this.next = next;
+        }
+
+        /**
+         * Returns whether no layout was found on this level.
+         *
+         * @return  Whether the level is empty
+         */
+        boolean isEmpty()
+        {
+            return !found;
+        }
+    }
+
+    /**
+     * Expands the frontier layouts in a range of bitset words, splitting the range
+     * in half until it is small enough.
+     */
+    private static class Expand extends RecursiveAction
+    {
+        /**
+         * Constants
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The level being expanded
+         */
+        private final Level level;
+
+        /**
+         * The first word of the range
+         */
+        private final int start;
+
+        /**
+         * The word after the range
+         */
+        private final int end;
+
+        /**
+         * Constructor for the task.
+         *
+         * @param   level - The level being expanded
+         * @param   start - The first word of the range
+         * @param   end - The word after the range
+         */
+        Expand(Level level, int start, int end)
+        {
+            this.level = level;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Expands the range or splits it between two tasks.
+         */
+        @Override
+        protected void compute()
+        {
+            if (end - start > WORDS_PER_TASK)
+            {
+                int middle = (start + end) >>> 1;
+                invokeAll(new Expand(level, start, middle), new Expand(level, middle, end));
+                return;
+            }
+            long[] previous = new long[Layout.MAX_PREVIOUS];
+            boolean found = false;
+            for (int word = start; word < end; word++)
+            {
+                long bits = level.frontier.get(word);
+                while (bits != 0)
+                {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int count = Layout.previous(LayoutIndex.unrank(level.pieces, index), previous);
+                    for (int j = 0; j < count; j++)
+                    {
+                        int rank = LayoutIndex.rank(previous[j]);
+                        if (!setBit(level.visited, rank)) continue;
+                        level.distances[rank] = (byte) level.distance;
+                        setBit(level.next, rank);
+                        found = true;
+                    }
+                }
+            }
+            if (found) level.found = true;
+        }
+    }
+}
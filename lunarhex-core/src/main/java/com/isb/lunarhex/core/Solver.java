@@ -0,0 +1,12 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The interface for a board solver, such as the breadth first solver.
+ *
+ * @author Ian Baker
+ */
+public interface Solver
+{
+    long[] solve(long state);
+    int nodes();
+}
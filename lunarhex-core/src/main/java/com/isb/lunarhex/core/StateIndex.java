@@ -0,0 +1,83 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The state index class numbers the board states with a given number of
+ * pieces from 0 to size - 1, keeping the colors of the helper pieces. The
+ * index is the layout index times the number of ways to color the helpers,
+ * plus the Lehmer code of the order of the helper colors over the helper
+ * hexagons. The methods are static and the class should not need to be
+ * constructed.
+ *
+ * @author Ian Baker
+ */
+public class StateIndex
+{
+    /**
+     * The factorial of each number of helper pieces
+     */
+    private static final int[] FACTORIAL = {1, 1, 2, 6, 24, 120};
+
+    /**
+     * Returns the number of board states with the number of pieces.
+     *
+     * @param   pieces - The number of pieces including red
+     * @return  The number of board states
+     */
+    public static int size(int pieces)
+    {
+        return LayoutIndex.size(pieces) * FACTORIAL[pieces - 1];
+    }
+
+    /**
+     * Returns the index of the board state among the states with as many pieces.
+     *
+     * @param   state - The packed board state
+     * @return  The index of the board state
+     */
+    public static int rank(long state)
+    {
+        int helpers = BoardState.pieceCount(state) - 1;
+        int occupancy = BoardState.occupancy(state);
+        int code = 0;
+        int remaining = 0;
+        for (int i = 1; i <= helpers; i++) remaining |= 1 << BoardState.position(state, i);
+        for (int i = 1; i <= helpers; i++)
+        {
+            // The number of hexagons of later colored helpers that come before this one
+            int bit = 1 << BoardState.position(state, i);
+            remaining &= ~bit;
+            code += Integer.bitCount(remaining & (bit - 1)) * FACTORIAL[helpers - i];
+        }
+        int layout = LayoutIndex.rank(Layout.create(BoardState.position(state, 0), occupancy));
+        return (layout * FACTORIAL[helpers]) + code;
+    }
+
+    /**
+     * Returns the board state at the index among the states with the number of pieces.
+     *
+     * @param   pieces - The number of pieces including red
+     * @param   index - The index of the board state
+     * @return  The packed board state
+     */
+    public static long unrank(int pieces, int index)
+    {
+        int helpers = pieces - 1;
+        long layout = LayoutIndex.unrank(pieces, index / FACTORIAL[helpers]);
+        int code = index % FACTORIAL[helpers];
+        int remaining = Layout.blockers(layout);
+        int[] positions = new int[BoardState.MAX_PIECES];
+        positions[0] = Layout.red(layout);
+        for (int i = 1; i <= helpers; i++)
+        {
+            // Take the hexagon with as many free hexagons before it as the Lehmer digit
+            int digit = code / FACTORIAL[helpers - i];
+            code -= digit * FACTORIAL[helpers - i];
+            int cells = remaining;
+            for (int j = 0; j < digit; j++) cells &= cells - 1;
+            int cell = Integer.numberOfTrailingZeros(cells);
+            positions[i] = cell;
+            remaining &= ~(1 << cell);
+        }
+        return BoardState.create(positions, pieces);
+    }
+}
@@ -0,0 +1,95 @@
+package com.isb.lunarhex.core;
+
+/**
+ * The Zobrist class hashes board states into 64 bit keys. A hash is the XOR
+ * of a random key for each piece and the hexagon it is on, so sliding a piece
+ * updates the hash by XOR-ing out the old hexagon and XOR-ing in the new one.
+ * The keys are generated from a fixed seed so hashes are stable between runs.
+ * The methods are static and the class should not need to be constructed.
+ *
+ * @author Ian Baker
+ */
+public class Zobrist
+{
+    /**
+     * Constants
+     */
+    private static final long SEED = 0x4C554E4152484558L;
+
+    /**
+     * The random key for each piece on each hexagon at piece * CELLS + index
+     */
+    private static final long[] KEYS = new long[BoardState.MAX_PIECES * BoardState.CELLS];
+
+    static
+    {
+        long seed = SEED;
+        for (int i = 0; i < KEYS.length; i++)
+        {
+            // SplitMix64 sequence
+            seed += 0x9E3779B97F4A7C15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            KEYS[i] = z ^ (z >>> 31);
+        }
+    }
+
+    /**
+     * Returns the random key of the piece on the hexagon.
+     *
+     * @param   piece - The piece 0 = R, 1 = G, 2 = B, 3 = Y, 4 = O, 5 = P
+     * @param   index - The index of the hexagon
+     * @return  The key of the piece on the hexagon
+     */
+    public static long key(int piece, int index)
+    {
+        return KEYS[(piece * BoardState.CELLS) + index];
+    }
+
+    /**
+     * Returns the hash of the board state.
+     *
+     * @param   state - The packed board state
+     * @return  The 64 bit hash of the board
+     */
+    public static long hash(long state)
+    {
+        long hash = 0;
+        for (int i = 0; i < BoardState.pieceCount(state); i++)
+        {
+            hash ^= KEYS[(i * BoardState.CELLS) + BoardState.position(state, i)];
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the hash after sliding a piece from one hexagon to another.
+     *
+     * @param   hash - The hash of the board before the slide
+     * @param   piece - The piece that slid
+     * @param   from - The index the piece slid from
+     * @param   to - The index the piece slid to
+     * @return  The hash of the board after the slide
+     */
+    public static long update(long hash, int piece, int from, int to)
+    {
+        int offset = piece * BoardState.CELLS;
+        return hash ^ KEYS[offset + from] ^ KEYS[offset + to];
+    }
+
+    /**
+     * Returns the hash after preforming the given move.
+     *
+     * @param   hash - The hash of the board before the move
+     * @param   state - The board state before the move
+     * @param   move - The encoded move, piece * 6 + direction
+     * @param   result - The board state after the move
+     * @return  The hash of the board after the move
+     */
+    public static long update(long hash, long state, int move, long result)
+    {
+        int piece = move / BoardState.DIRECTIONS;
+        return update(hash, piece, BoardState.position(state, piece), BoardState.position(result, piece));
+    }
+}
@@ -0,0 +1,55 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that the bidirectional solver finds shortest solutions, where the two
+ * sides of the search meet at every depth.
+ *
+ * @author Ian Baker
+ */
+public class BidirectionalSolverTest
+{
+    /**
+     * Constants
+     */
+    private static final int BOARDS = 200;
+
+    /**
+     * Tests random boards of every number of pieces against the breadth first solver.
+     */
+    @Test
+    public void matchesBreadthFirstSolver()
+    {
+        TestBoards.assertMatchesBreadthFirstSolver(new BidirectionalSolver(), new Random(9), BOARDS);
+    }
+
+    /**
+     * Tests that a board one move from solved meets a solved layout the goal side
+     * never had to expand.
+     */
+    @Test
+    public void oneMoveMeetsSolvedLayout()
+    {
+        long state = BoardState.fromString("R-17,G-7");
+        assertArrayEquals(new long[] {state, BoardState.fromString("R-12,G-7")}, new BidirectionalSolver().solve(state));
+    }
+
+    /**
+     * Tests that a board three moves from solved, where the two sides meet in the
+     * middle, replays as colored board states.
+     */
+    @Test
+    public void meetsInTheMiddle()
+    {
+        long state = BoardState.fromString("R-4,G-10,B-14,Y-17");
+        long[] path = new BidirectionalSolver().solve(state);
+        assertEquals(4, path.length);
+        TestBoards.assertSolution(state, path);
+    }
+}
@@ -0,0 +1,76 @@
+package com.isb.lunarhex.core;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the board generator keeps to the range of moves and, when asked,
+ * to boards with a single shortest solution.
+ *
+ * @author Ian Baker
+ */
+public class BoardGeneratorTest
+{
+    /**
+     * Constants
+     */
+    private static final int BOARDS = 20;
+    private static final int LOW = 6;
+    private static final int HIGH = 9;
+
+    /**
+     * The distances of every layout, built once for all tests
+     */
+    private static DistanceDatabase distances;
+
+    /**
+     * Builds the distances.
+     */
+    @BeforeClass
+    public static void build()
+    {
+        distances = new DistanceDatabase(DistanceDatabaseBuilder.encode(DistanceDatabaseBuilder.build()));
+    }
+
+    /**
+     * Tests that generated boards are in range and have one shortest solution
+     * when uniqueness is asked.
+     */
+    @Test
+    public void uniqueSolution()
+    {
+        BoardGenerator generator = new BoardGenerator(distances, new Random(17));
+        OptimalMoves optimal = new OptimalMoves(distances);
+        for (int i = 0; i < BOARDS; i++)
+        {
+            String board = generator.generate(LOW, HIGH, true);
+            assertNotNull(board);
+            long[] solution = CompressedBoard.solution(board);
+            TestBoards.assertSolution(solution[0], solution);
+            assertEquals(distances.distanceOf(solution[0]), CompressedBoard.moveCount(board));
+            assertTrue("Moves of " + board, LOW <= CompressedBoard.moveCount(board) && CompressedBoard.moveCount(board) <= HIGH);
+            assertEquals("Solutions of " + board, 1, optimal.count(solution[0]));
+        }
+    }
+
+    /**
+     * Tests that without the distance database boards are still generated by
+     * solving, but uniqueness can not be asked.
+     */
+    @Test
+    public void withoutDistances()
+    {
+        BoardGenerator generator = new BoardGenerator(null, new Random(17));
+        String board = generator.generate(1, 3);
+        assertNotNull(board);
+        assertTrue(CompressedBoard.moveCount(board) <= 3);
+        assertNull(generator.generate(1, 3, true));
+    }
+}
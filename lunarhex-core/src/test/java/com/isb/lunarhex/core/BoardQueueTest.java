@@ -0,0 +1,194 @@
+package com.isb.lunarhex.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that the board queue fills the selected range in the background, and
+ * that stopping it never waits on the generator and leaves no thread behind.
+ *
+ * @author Ian Baker
+ */
+public class BoardQueueTest
+{
+    /**
+     * Constants
+     */
+    private static final String THREAD_NAME = "BoardQueue";
+    private static final int CAPACITY = 2;
+    private static final int LOW = 3;
+    private static final int HIGH = 5;
+    private static final long STOP_MS = 100;
+
+    /**
+     * The distances of every layout, built once for all tests
+     */
+    private static DistanceDatabase distances;
+
+    /**
+     * The number of producer threads alive before the test
+     */
+    private int threads;
+
+    /**
+     * The queue under test
+     */
+    private BoardQueue queue;
+
+    /**
+     * Builds the distances.
+     */
+    @BeforeClass
+    public static void build()
+    {
+        distances = new DistanceDatabase(DistanceDatabaseBuilder.encode(DistanceDatabaseBuilder.build()));
+    }
+
+    /**
+     * Creates the queue.
+     */
+    @Before
+    public void createQueue()
+    {
+        threads = TestThreads.count(THREAD_NAME);
+        queue = new BoardQueue(new BoardGenerator(distances, new Random(19)), CAPACITY);
+    }
+
+    /**
+     * Stops the queue and checks its thread ends.
+     */
+    @After
+    public void stopQueue()
+    {
+        queue.stop();
+        TestThreads.awaitCount(THREAD_NAME, threads);
+    }
+
+    /**
+     * Tests that nothing is ready before the queue is started.
+     */
+    @Test
+    public void emptyUntilStarted()
+    {
+        assertNull(queue.poll(LOW, HIGH));
+        assertEquals(threads, TestThreads.count(THREAD_NAME));
+    }
+
+    /**
+     * Tests that the selected range is filled with boards whose shortest solution
+     * has the number of moves of their bucket.
+     */
+    @Test
+    public void fillsRange()
+    {
+        queue.setRange(LOW, HIGH);
+        queue.start();
+        awaitFull(queue);
+        BreadthFirstSolver solver = new BreadthFirstSolver();
+        for (int i = 0; i < CAPACITY * (HIGH - LOW + 1); i++)
+        {
+            String board = queue.poll(LOW, HIGH);
+            assertNotNull(board);
+            int moves = CompressedBoard.moveCount(board);
+            assertTrue("Moves of " + board, LOW <= moves && moves <= HIGH);
+            long[] solution = CompressedBoard.solution(board);
+            TestBoards.assertSolution(solution[0], solution);
+            assertEquals("Moves of " + board, moves + 1, solver.solve(solution[0]).length);
+        }
+    }
+
+    /**
+     * Tests that stopping does not wait for the generator, that the thread ends,
+     * and that a restarted queue keeps its ready boards and refills.
+     */
+    @Test
+    public void stopAndRestart()
+    {
+        queue.setRange(LOW, HIGH);
+        queue.start();
+        awaitFull(queue);
+        // The other buckets are being filled now, so the stop lands during generation
+        long start = System.nanoTime();
+        queue.stop();
+        assertTrue("Stop waited", (System.nanoTime() - start) / 1000000 < STOP_MS);
+        TestThreads.awaitCount(THREAD_NAME, threads);
+        for (int moves = LOW; moves <= HIGH; moves++) assertEquals(CAPACITY, queue.size(moves));
+        assertNotNull(queue.poll(LOW, HIGH));
+        queue.start();
+        assertEquals(threads + 1, TestThreads.count(THREAD_NAME));
+        awaitFull(queue);
+    }
+
+    /**
+     * Tests that asking for unique solutions drops the ready boards and fills the
+     * range with boards that have a single shortest solution.
+     */
+    @Test
+    public void uniqueSolution()
+    {
+        queue.setRange(LOW, HIGH);
+        queue.start();
+        awaitFull(queue);
+        queue.setUniqueSolution(true);
+        for (int moves = LOW; moves <= HIGH; moves++) assertEquals(0, queue.size(moves));
+        awaitFull(queue);
+        OptimalMoves optimal = new OptimalMoves(distances);
+        for (int i = 0; i < CAPACITY * (HIGH - LOW + 1); i++)
+        {
+            String board = queue.poll(LOW, HIGH);
+            assertNotNull(board);
+            assertEquals("Solutions of " + board, 1, optimal.count(CompressedBoard.board(board)));
+        }
+    }
+
+    /**
+     * Tests that a range the generator can never fill is reported as given up,
+     * here unique solutions without the distance database.
+     */
+    @Test
+    public void exhausted()
+    {
+        queue.stop();
+        queue = new BoardQueue(new BoardGenerator(null, new Random(19)), CAPACITY);
+        queue.setUniqueSolution(true);
+        queue.setRange(LOW, HIGH);
+        assertFalse(queue.isExhausted(LOW, HIGH));
+        queue.start();
+        long deadline = System.currentTimeMillis() + TestThreads.TIMEOUT_MS;
+        while (!queue.isExhausted(LOW, HIGH))
+        {
+            if (System.currentTimeMillis() > deadline) fail("Range not given up");
+            TestThreads.sleep();
+        }
+        assertNull(queue.poll(LOW, HIGH));
+    }
+
+    /**
+     * Waits until every bucket of the range holds CAPACITY boards.
+     *
+     * @param   queue - The queue
+     */
+    private static void awaitFull(BoardQueue queue)
+    {
+        long deadline = System.currentTimeMillis() + TestThreads.TIMEOUT_MS;
+        for (int moves = LOW; moves <= HIGH; moves++)
+        {
+            while (queue.size(moves) < CAPACITY)
+            {
+                if (System.currentTimeMillis() > deadline) fail("Bucket " + moves + " not filled");
+                TestThreads.sleep();
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the packed board state against boards worked out with the string
+ * board implementation it replaced.
+ *
+ * @author Ian Baker
+ */
+public class BoardStateTest
+{
+    /**
+     * Constants
+     */
+    private static final int RANDOM_BOARDS = 1000;
+
+    /**
+     * The first, third and fifth main boards in the game string format
+     */
+    private static final String[] BOARDS = {"R-17,G-7", "R-0,G-6,B-14,Y-20", "R-4,G-10,B-14,Y-17"};
+
+    /**
+     * Every legal move of the boards and the board after it, any other move is not legal
+     */
+    private static final String[][] MOVES = {
+        {"R-17,G-7", "0", "R-12,G-7"},
+        {"R-17,G-7", "7", "R-17,G-12"},
+        {"R-0,G-6,B-14,Y-20", "1", "R-15,G-6,B-14,Y-20"},
+        {"R-0,G-6,B-14,Y-20", "10", "R-0,G-13,B-14,Y-20"},
+        {"R-0,G-6,B-14,Y-20", "15", "R-0,G-6,B-7,Y-20"},
+        {"R-0,G-6,B-14,Y-20", "17", "R-0,G-6,B-21,Y-20"},
+        {"R-0,G-6,B-14,Y-20", "18", "R-0,G-6,B-14,Y-5"},
+        {"R-0,G-6,B-14,Y-20", "20", "R-0,G-6,B-14,Y-18"},
+        {"R-4,G-10,B-14,Y-17", "1", "R-9,G-10,B-14,Y-17"},
+        {"R-4,G-10,B-14,Y-17", "5", "R-11,G-10,B-14,Y-17"},
+        {"R-4,G-10,B-14,Y-17", "8", "R-4,G-8,B-14,Y-17"},
+        {"R-4,G-10,B-14,Y-17", "10", "R-4,G-16,B-14,Y-17"},
+        {"R-4,G-10,B-14,Y-17", "12", "R-4,G-10,B-9,Y-17"},
+        {"R-4,G-10,B-14,Y-17", "17", "R-4,G-10,B-18,Y-17"},
+        {"R-4,G-10,B-14,Y-17", "20", "R-4,G-10,B-14,Y-18"},
+        {"R-4,G-10,B-14,Y-17", "21", "R-4,G-10,B-14,Y-16"},
+    };
+
+    /**
+     * The hexagons along the paths and at the ends of the paths of each piece of the boards
+     */
+    private static final String[][] PATHS = {
+        {"R-17,G-7", "17", "22,18,14,16,10,23,24,21,20", "12"},
+        {"R-17,G-7", "7", "2,8,4,6,0,13,14,11,10", "12"},
+        {"R-0,G-6,B-14,Y-20", "0", "5,10,1", "15"},
+        {"R-0,G-6,B-14,Y-20", "6", "1,11,16,21,25,2,3,7,5", "13"},
+        {"R-0,G-6,B-14,Y-20", "14", "9,4,19,24,13,18,17", "7,21"},
+        {"R-0,G-6,B-14,Y-20", "20", "15,10,21,17,25", "5,18"},
+        {"R-4,G-10,B-14,Y-17", "4", "3,8,7", "9,11"},
+        {"R-4,G-10,B-14,Y-17", "10", "5,0,15,20,11,7", "8,16"},
+        {"R-4,G-10,B-14,Y-17", "14", "19,24,13,7,6,0", "9,18"},
+        {"R-4,G-10,B-14,Y-17", "17", "12,7,2,22,23,24,21,20", "18,16"},
+    };
+
+    /**
+     * Tests parsing and writing the game string format.
+     */
+    @Test
+    public void fromStringAndToString()
+    {
+        for (String board : BOARDS)
+        {
+            long state = BoardState.fromString(board);
+            assertEquals(board, BoardState.toString(state));
+            String[] pieces = board.split(",");
+            assertEquals(pieces.length, BoardState.pieceCount(state));
+            int occupancy = 0;
+            for (int i = 0; i < pieces.length; i++)
+            {
+                int index = Integer.parseInt(pieces[i].substring(2));
+                assertEquals(index, BoardState.position(state, i));
+                assertEquals(i, BoardState.pieceAt(state, index));
+                assertTrue(BoardState.pieceAtIndex(state, index));
+                occupancy |= 1 << index;
+            }
+            assertEquals(occupancy, BoardState.occupancy(state));
+        }
+    }
+
+    /**
+     * Tests every move of the boards, the legal ones against the table.
+     */
+    @Test
+    public void afterMove()
+    {
+        for (String board : BOARDS)
+        {
+            long state = BoardState.fromString(board);
+            for (int move = 0; move < BoardState.pieceCount(state) * BoardState.DIRECTIONS; move++)
+            {
+                String expected = expectedAfter(board, move);
+                long result = BoardState.afterMove(state, move);
+                if (expected == null)
+                {
+                    assertEquals("Move " + move + " of " + board, BoardState.INVALID, result);
+                }
+                else
+                {
+                    assertEquals("Move " + move + " of " + board, expected, BoardState.toString(result));
+                    assertEquals(BoardState.fromString(expected), result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the move between two boards is the move that was made.
+     */
+    @Test
+    public void moveBetween()
+    {
+        for (String[] row : MOVES)
+        {
+            long state = BoardState.fromString(row[0]);
+            long result = BoardState.fromString(row[2]);
+            int move = Integer.parseInt(row[1]);
+            assertEquals(move / BoardState.DIRECTIONS, BoardState.movedPiece(state, result));
+            assertEquals(move, BoardState.moveBetween(state, result));
+        }
+        long state = BoardState.fromString(BOARDS[0]);
+        assertEquals(-1, BoardState.moveBetween(state, state));
+    }
+
+    /**
+     * Tests that generating the moves of the boards gives the legal moves of the
+     * table in order, and agrees with making each move on random boards.
+     */
+    @Test
+    public void generateMoves()
+    {
+        int[] moves = new int[BoardState.MAX_MOVES];
+        long[] results = new long[BoardState.MAX_MOVES];
+        for (String board : BOARDS)
+        {
+            int count = BoardState.generateMoves(BoardState.fromString(board), moves, results);
+            int expected = 0;
+            for (String[] row : MOVES)
+            {
+                if (!row[0].equals(board)) continue;
+                assertEquals("Move of " + board, Integer.parseInt(row[1]), moves[expected]);
+                assertEquals("Move of " + board, row[2], BoardState.toString(results[expected]));
+                expected++;
+            }
+            assertEquals("Moves of " + board, expected, count);
+        }
+        Random random = new Random(3);
+        for (int i = 0; i < RANDOM_BOARDS; i++)
+        {
+            long state = TestBoards.random(random, 1 + random.nextInt(BoardState.MAX_PIECES));
+            int count = BoardState.generateMoves(state, moves, results);
+            int found = 0;
+            for (int move = 0; move < BoardState.pieceCount(state) * BoardState.DIRECTIONS; move++)
+            {
+                long result = BoardState.afterMove(state, move);
+                if (result == BoardState.INVALID) continue;
+                assertEquals(move, moves[found]);
+                assertEquals(result, results[found]);
+                found++;
+            }
+            assertEquals(found, count);
+        }
+    }
+
+    /**
+     * Tests the hexagons along and at the end of the paths of each piece.
+     */
+    @Test
+    public void pathAndStopMasks()
+    {
+        for (String[] row : PATHS)
+        {
+            long state = BoardState.fromString(row[0]);
+            int index = Integer.parseInt(row[1]);
+            assertEquals("Path of " + index + " on " + row[0], mask(row[2]), BoardState.pathMask(state, index));
+            assertEquals("Stops of " + index + " on " + row[0], mask(row[3]), BoardState.stopMask(state, index));
+        }
+    }
+
+    /**
+     * Tests that a board is solved only with red on the center.
+     */
+    @Test
+    public void isSolved()
+    {
+        assertTrue(BoardState.isSolved(BoardState.fromString("R-12,G-7")));
+        assertFalse(BoardState.isSolved(BoardState.fromString("R-17,G-12")));
+        assertFalse(BoardState.isSolved(BoardState.EMPTY));
+    }
+
+    /**
+     * Returns the board after the move from the table.
+     *
+     * @param   board - The board in the game string format
+     * @param   move - The encoded move
+     * @return  The board after the move or null if the move is not legal
+     */
+    private static String expectedAfter(String board, int move)
+    {
+        for (String[] row : MOVES)
+        {
+            if (row[0].equals(board) && Integer.parseInt(row[1]) == move) return row[2];
+        }
+        return null;
+    }
+
+    /**
+     * Returns the mask of the comma separated hexagon indices.
+     *
+     * @param   indices - The hexagon indices
+     * @return  The mask of the hexagons
+     */
+    private static int mask(String indices)
+    {
+        int mask = 0;
+        for (String index : indices.split(",")) mask |= 1 << Integer.parseInt(index);
+        return mask;
+    }
+}
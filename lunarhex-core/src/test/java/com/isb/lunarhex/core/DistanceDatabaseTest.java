@@ -0,0 +1,157 @@
+package com.isb.lunarhex.core;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the distance database reads back the distances it was encoded
+ * from, and that the distances are those of breadth first search.
+ *
+ * @author Ian Baker
+ */
+public class DistanceDatabaseTest
+{
+    /**
+     * Constants
+     */
+    private static final int BOARDS = 500;
+
+    /**
+     * The distances of every layout, built once for all tests
+     */
+    private static byte[][] distances;
+
+    /**
+     * Builds the distances.
+     */
+    @BeforeClass
+    public static void build()
+    {
+        distances = DistanceDatabaseBuilder.build();
+    }
+
+    /**
+     * Tests that every layout decodes to the distance it was encoded with.
+     */
+    @Test
+    public void encodeDecode()
+    {
+        assertDistances(new DistanceDatabase(DistanceDatabaseBuilder.encode(distances)));
+    }
+
+    /**
+     * Tests that a written and memory mapped file decodes to the same distances.
+     *
+     * @throws  IOException if the file could not be written or mapped
+     */
+    @Test
+    public void writeAndMap() throws IOException
+    {
+        File file = File.createTempFile("distances", ".db");
+        try
+        {
+            DistanceDatabaseBuilder.write(file, distances);
+            assertEquals(DistanceDatabase.fileSize(), file.length());
+            assertDistances(DistanceDatabase.map(file));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    /**
+     * Tests the distances of random boards of every number of pieces against the
+     * breadth first solver, and that the best moves follow a shortest solution.
+     */
+    @Test
+    public void matchesBreadthFirstSolver()
+    {
+        DistanceDatabase database = new DistanceDatabase(DistanceDatabaseBuilder.encode(distances));
+        BreadthFirstSolver solver = new BreadthFirstSolver();
+        Random random = new Random(11);
+        for (int i = 0; i < BOARDS; i++)
+        {
+            long state = TestBoards.random(random, DistanceDatabase.MIN_PIECES + (i % (DistanceDatabase.MAX_PIECES - 1)));
+            long[] path = solver.solve(state);
+            int distance = database.distanceOf(state);
+            if (path == null)
+            {
+                assertEquals("Distance of " + BoardState.toString(state), DistanceDatabase.UNSOLVABLE, distance);
+                assertEquals(-1, database.bestMove(state));
+                continue;
+            }
+            assertEquals("Distance of " + BoardState.toString(state), path.length - 1, distance);
+            for (int moves = distance; moves > 0; moves--)
+            {
+                int move = database.bestMove(state);
+                assertNotEquals("No best move of " + BoardState.toString(state), -1, move);
+                state = BoardState.afterMove(state, move);
+                assertEquals(moves - 1, database.distanceOf(state));
+            }
+            assertTrue("Not solved " + BoardState.toString(state), BoardState.isSolved(state));
+        }
+    }
+
+    /**
+     * Tests that boards with a number of pieces not stored are unknown.
+     */
+    @Test
+    public void unknownPieceCount()
+    {
+        DistanceDatabase database = new DistanceDatabase(DistanceDatabaseBuilder.encode(distances));
+        assertEquals(DistanceDatabase.UNKNOWN, database.distanceOf(BoardState.create(new int[] {0}, 1)));
+    }
+
+    /**
+     * Tests that bytes without the magic number are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsWrongMagic()
+    {
+        ByteBuffer buffer = DistanceDatabaseBuilder.encode(distances);
+        buffer.putInt(0, DistanceDatabase.MAGIC + 1);
+        new DistanceDatabase(buffer);
+    }
+
+    /**
+     * Tests that a truncated file is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTruncated()
+    {
+        ByteBuffer buffer = DistanceDatabaseBuilder.encode(distances);
+        buffer.limit(buffer.capacity() / 2);
+        new DistanceDatabase(buffer.slice());
+    }
+
+    /**
+     * Asserts that every layout of the database has its built distance.
+     *
+     * @param   database - The database to check
+     */
+    private static void assertDistances(DistanceDatabase database)
+    {
+        for (int pieces = DistanceDatabase.MIN_PIECES; pieces <= DistanceDatabase.MAX_PIECES; pieces++)
+        {
+            for (int i = 0; i < distances[pieces].length; i++)
+            {
+                int distance = database.distance(LayoutIndex.unrank(pieces, i));
+                // Only build the message of a mismatch, there are millions of layouts
+                if (distance != distances[pieces][i])
+                {
+                    assertEquals("Distance of layout " + i + " of " + pieces + " pieces", distances[pieces][i], distance);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the generated tables of the lunar board against the neighbour table
+ * the string board used, and that the packed copies in the hex geometry match.
+ *
+ * @author Ian Baker
+ */
+public class HexShapeTest
+{
+    /**
+     * The neighbour of each hexagon in each direction 0 = U, 1 = D, 2 = UR, 3 = UL, 4 = DR, 5 = DL,
+     * or -1 if off the board, as written out for the string board
+     */
+    private static final int[][] NEIGHBOURS = {
+        {-1, 5, 1, -1, 6, -1}, {-1, 6, -1, -1, 2, 0}, {-1, 7, 3, 1, 8, 6}, {-1, 8, -1, -1, 4, 2}, {-1, 9, -1, 3, -1, 8},
+        {0, 10, 6, -1, 11, -1}, {1, 11, 2, 0, 7, 5}, {2, 12, 8, 6, 13, 11}, {3, 13, 4, 2, 9, 7}, {4, 14, -1, 8, -1, 13},
+        {5, 15, 11, -1, 16, -1}, {6, 16, 7, 5, 12, 10}, {7, 17, 13, 11, 18, 16}, {8, 18, 9, 7, 14, 12}, {9, 19, -1, 13, -1, 18},
+        {10, 20, 16, -1, 21, -1}, {11, 21, 12, 10, 17, 15}, {12, 22, 18, 16, 23, 21}, {13, 23, 14, 12, 19, 17}, {14, 24, -1, 18, -1, 23},
+        {15, -1, 21, -1, 25, -1}, {16, 25, 17, 15, 22, 20}, {17, -1, 23, 21, 26, 25}, {18, 26, 19, 17, 24, 22}, {19, -1, -1, 23, -1, 26},
+        {21, -1, 22, 20, -1, -1}, {23, -1, 24, 22, -1, -1},
+    };
+
+    /**
+     * The order the game board drew its hexagons in before it was taken from the shape
+     */
+    private static final int[] DRAW_ORDER = {1, 3, 0, 2, 4, 6, 8, 5, 7, 9, 11, 13, 10, 12, 14, 16, 18, 15, 17, 19, 21, 23, 20, 22, 24, 25, 26};
+
+    /**
+     * Tests that every ray follows the neighbours hexagon by hexagon to the edge,
+     * and that the direction between two hexagons is the ray holding the second.
+     */
+    @Test
+    public void raysAndDirections()
+    {
+        HexShape shape = HexShape.LUNAR;
+        assertEquals(NEIGHBOURS.length, shape.cells());
+        for (int index = 0; index < shape.cells(); index++)
+        {
+            int[] direction = new int[shape.cells()];
+            for (int i = 0; i < direction.length; i++) direction[i] = -1;
+            for (int dir = 0; dir < HexShape.DIRECTIONS; dir++)
+            {
+                int step = 0;
+                for (int next = NEIGHBOURS[index][dir]; next != -1; next = NEIGHBOURS[next][dir])
+                {
+                    assertEquals("Ray " + dir + " of " + index, next, shape.ray(index, dir, step++));
+                    direction[next] = dir;
+                }
+                assertEquals("Ray " + dir + " of " + index, step, shape.rayLength(index, dir));
+                assertEquals(NEIGHBOURS[index][dir], HexGeometry.neighbour(index, dir));
+            }
+            for (int end = 0; end < shape.cells(); end++)
+            {
+                assertEquals("Direction from " + index + " to " + end, direction[end], shape.direction(index, end));
+                assertEquals(direction[end], HexGeometry.direction(index, end));
+            }
+        }
+        assertEquals(-1, shape.direction(-1, 0));
+        assertEquals(-1, shape.direction(0, shape.cells()));
+    }
+
+    /**
+     * Tests the reflection about the center column against the grid, with the two
+     * bottom hexagons swapped.
+     */
+    @Test
+    public void mirror()
+    {
+        HexShape shape = HexShape.LUNAR;
+        for (int index = 0; index < 25; index++)
+        {
+            int expected = ((index / 5) * 5) + 4 - (index % 5);
+            assertEquals("Mirror of " + index, expected, shape.mirror(index));
+            assertEquals(expected, HexGeometry.mirror(index));
+        }
+        assertEquals(26, shape.mirror(25));
+        assertEquals(25, shape.mirror(26));
+        for (int index = 0; index < shape.cells(); index++)
+        {
+            for (int dir = 0; dir < HexShape.DIRECTIONS; dir++)
+            {
+                int next = NEIGHBOURS[index][dir];
+                int reflected = NEIGHBOURS[shape.mirror(index)][HexGeometry.MIRROR_DIRECTION[dir]];
+                assertEquals(next == -1 ? -1 : shape.mirror(next), reflected);
+            }
+        }
+    }
+
+    /**
+     * Tests the coordinates and the drawing orders against the grid.
+     */
+    @Test
+    public void coordinatesAndOrders()
+    {
+        HexShape shape = HexShape.LUNAR;
+        for (int index = 0; index < shape.cells(); index++)
+        {
+            int column = (index < 25) ? index % 5 : ((index - 25) * 2) + 1;
+            int row = (index < 25) ? index / 5 : 5;
+            assertEquals(column, shape.column(index));
+            assertEquals(row, shape.row(index));
+            assertEquals(index, shape.indexAt(column, row));
+            assertEquals(column, HexGeometry.column(index));
+            assertEquals(row, HexGeometry.row(index));
+            assertEquals(DRAW_ORDER[index], shape.drawOrder(index));
+        }
+        assertEquals(-1, shape.indexAt(0, 5));
+        assertEquals(-1, shape.indexAt(5, 0));
+        // Numbered column by column, so column 1 holds 5 to 10 with 25 at the bottom
+        assertEquals(0, shape.columnOrder(0));
+        assertEquals(10, shape.columnOrder(25));
+        assertEquals(26, shape.columnOrder(24));
+    }
+}
@@ -0,0 +1,110 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that the hint cache evicts the least recently used board state and
+ * counts its hits and misses.
+ *
+ * @author Ian Baker
+ */
+public class HintCacheTest
+{
+    /**
+     * Constants
+     */
+    private static final int CAPACITY = 3;
+
+    /**
+     * Tests that a full cache evicts board states in the order they were stored.
+     */
+    @Test
+    public void evictsOldest()
+    {
+        HintCache cache = new HintCache(CAPACITY);
+        for (int state = 0; state < CAPACITY * 2; state++)
+        {
+            cache.put(state, hint(state));
+            assertEquals(Math.min(state + 1, CAPACITY), cache.size());
+        }
+        for (int state = 0; state < CAPACITY; state++) assertEquals(HintCache.MISS, cache.get(state));
+        for (int state = CAPACITY; state < CAPACITY * 2; state++) assertEquals(hint(state), cache.get(state));
+    }
+
+    /**
+     * Tests that looking up or storing again makes a board state the most recently
+     * used, so the oldest untouched one is evicted instead.
+     */
+    @Test
+    public void refreshesOnUse()
+    {
+        HintCache cache = new HintCache(CAPACITY);
+        cache.put(0, hint(0));
+        cache.put(1, hint(1));
+        cache.put(2, hint(2));
+        // The order from oldest is now 1, 2, 0
+        assertEquals(hint(0), cache.get(0));
+        cache.put(3, hint(3));
+        assertEquals(HintCache.MISS, cache.get(1));
+        // The order from oldest is now 2, 0, 3 and storing 2 again moves it last
+        cache.put(2, hint(5));
+        cache.put(4, hint(4));
+        assertEquals(HintCache.MISS, cache.get(0));
+        assertEquals(hint(5), cache.get(2));
+        assertEquals(hint(3), cache.get(3));
+        assertEquals(hint(4), cache.get(4));
+        // The newest entry is refreshed without changing the order
+        assertEquals(hint(4), cache.get(4));
+        cache.put(6, hint(6));
+        assertEquals(HintCache.MISS, cache.get(2));
+        assertEquals(CAPACITY, cache.size());
+    }
+
+    /**
+     * Tests the hit and miss counters and that clearing resets them.
+     */
+    @Test
+    public void countsHitsAndMisses()
+    {
+        HintCache cache = new HintCache(CAPACITY);
+        assertEquals(HintCache.MISS, cache.get(0));
+        cache.put(0, hint(0));
+        assertEquals(hint(0), cache.get(0));
+        assertEquals(hint(0), cache.get(0));
+        assertEquals(HintCache.MISS, cache.get(1));
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+        cache.clear();
+        assertEquals(0, cache.hits());
+        assertEquals(0, cache.misses());
+        assertEquals(0, cache.size());
+        assertEquals(HintCache.MISS, cache.get(0));
+    }
+
+    /**
+     * Tests packing and unpacking the move and moves left of a hint.
+     */
+    @Test
+    public void packsHint()
+    {
+        int hint = HintCache.hint(35, 20);
+        assertEquals(35, HintCache.move(hint));
+        assertEquals(20, HintCache.distance(hint));
+        hint = HintCache.hint(HintCache.NO_MOVE, HintCache.UNSOLVABLE);
+        assertEquals(HintCache.NO_MOVE, HintCache.move(hint));
+        assertEquals(HintCache.UNSOLVABLE, HintCache.distance(hint));
+    }
+
+    /**
+     * Returns a distinct hint for the board state of the test.
+     *
+     * @param   state - The board state of the test
+     * @return  The packed hint
+     */
+    private static int hint(int state)
+    {
+        return HintCache.hint(state, state + 1);
+    }
+}
@@ -0,0 +1,199 @@
+package com.isb.lunarhex.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that the hint worker delivers the result of the latest request only,
+ * and that shutting it down leaves no thread behind.
+ *
+ * @author Ian Baker
+ */
+public class HintWorkerTest
+{
+    /**
+     * Constants
+     */
+    private static final String THREAD_NAME = "HintWorker";
+    private static final long CANCEL_WAIT_MS = 50;
+
+    /**
+     * The number of worker threads alive before the test
+     */
+    private int threads;
+
+    /**
+     * The worker under test
+     */
+    private HintWorker worker;
+
+    /**
+     * Creates the worker.
+     */
+    @Before
+    public void createWorker()
+    {
+        threads = TestThreads.count(THREAD_NAME);
+        worker = new HintWorker(new BreadthFirstSolver());
+    }
+
+    /**
+     * Shuts the worker down and checks its thread is gone.
+     */
+    @After
+    public void shutdownWorker()
+    {
+        worker.shutdown();
+        assertEquals(threads, TestThreads.count(THREAD_NAME));
+    }
+
+    /**
+     * Tests that a request delivers a shortest solution once.
+     */
+    @Test
+    public void solvesRequest()
+    {
+        long state = solvableBoard(new Random(15));
+        worker.submit(state);
+        assertTrue(worker.isBusy());
+        long[] path = await(worker);
+        TestBoards.assertSolution(state, path);
+        assertEquals(new BreadthFirstSolver().solve(state).length, path.length);
+        assertFalse(worker.isBusy());
+        assertNull(worker.poll());
+    }
+
+    /**
+     * Tests that a board that can not be solved delivers UNSOLVABLE.
+     */
+    @Test
+    public void unsolvableRequest()
+    {
+        worker.submit(BoardState.create(new int[] {0}, 1));
+        assertSame(HintWorker.UNSOLVABLE, await(worker));
+    }
+
+    /**
+     * Tests that a newer request replaces an older one.
+     */
+    @Test
+    public void newerRequestReplacesOlder()
+    {
+        Random random = new Random(15);
+        long older = solvableBoard(random);
+        long newer = solvableBoard(random);
+        worker.submit(older);
+        worker.submit(newer);
+        long[] path = await(worker);
+        TestBoards.assertSolution(newer, path);
+        assertNull(worker.poll());
+    }
+
+    /**
+     * Tests that a cancelled request never delivers its result.
+     *
+     * @throws  InterruptedException if interrupted while waiting
+     */
+    @Test
+    public void cancelDropsResult() throws InterruptedException
+    {
+        worker.submit(solvableBoard(new Random(15)));
+        worker.cancel();
+        assertFalse(worker.isBusy());
+        Thread.sleep(CANCEL_WAIT_MS);
+        assertNull(worker.poll());
+    }
+
+    /**
+     * Tests that shutting down interrupts a running search and waits for the
+     * thread, and that a later request starts a new thread.
+     */
+    @Test
+    public void shutdownInterruptsSearch()
+    {
+        final Object started = new Object();
+        worker = new HintWorker(new Solver()
+        {
+            @Override
+            public long[] solve(long state)
+            {
+                synchronized (started)
+                {
+                    started.notifyAll();
+                }
+                // A search that only ends when interrupted
+                while (!Thread.currentThread().isInterrupted()) Thread.yield();
+                return null;
+            }
+
+            @Override
+            public int nodes()
+            {
+                return 0;
+            }
+        });
+        synchronized (started)
+        {
+            worker.submit(BoardState.create(new int[] {0}, 1));
+            try
+            {
+                started.wait(TestThreads.TIMEOUT_MS);
+            }
+            catch (InterruptedException e)
+            {
+                fail("Interrupted");
+            }
+        }
+        worker.shutdown();
+        assertEquals(threads, TestThreads.count(THREAD_NAME));
+        assertNull(worker.poll());
+        assertFalse(worker.isBusy());
+        worker.submit(BoardState.create(new int[] {0}, 1));
+        assertEquals(threads + 1, TestThreads.count(THREAD_NAME));
+    }
+
+    /**
+     * Returns a random board of six pieces that can be solved in a few moves.
+     *
+     * @param   random - The random source
+     * @return  The packed board state
+     */
+    private static long solvableBoard(Random random)
+    {
+        BreadthFirstSolver solver = new BreadthFirstSolver();
+        while (true)
+        {
+            long state = TestBoards.random(random, BoardState.MAX_PIECES);
+            long[] path = solver.solve(state);
+            if (path != null && path.length > 2) return state;
+        }
+    }
+
+    /**
+     * Waits for the result of the latest request.
+     *
+     * @param   worker - The worker
+     * @return  The shortest path or UNSOLVABLE
+     */
+    private static long[] await(HintWorker worker)
+    {
+        long deadline = System.currentTimeMillis() + TestThreads.TIMEOUT_MS;
+        long[] path;
+        while ((path = worker.poll()) == null)
+        {
+            if (System.currentTimeMillis() > deadline) fail("No result");
+            TestThreads.sleep();
+        }
+        return path;
+    }
+}
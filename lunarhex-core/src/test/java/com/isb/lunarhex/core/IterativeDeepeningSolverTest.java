@@ -0,0 +1,39 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests that the iterative deepening solver finds shortest solutions whatever
+ * the size of its transposition table.
+ *
+ * @author Ian Baker
+ */
+public class IterativeDeepeningSolverTest
+{
+    /**
+     * Constants
+     */
+    private static final int BOARDS = 200;
+    private static final int SMALL_TABLE_BITS = 8;
+
+    /**
+     * Tests random boards of every number of pieces against the breadth first solver.
+     */
+    @Test
+    public void matchesBreadthFirstSolver()
+    {
+        TestBoards.assertMatchesBreadthFirstSolver(new IterativeDeepeningSolver(), new Random(10), BOARDS);
+    }
+
+    /**
+     * Tests that a transposition table small enough to be overwritten all the
+     * time only costs nodes, not optimality.
+     */
+    @Test
+    public void smallTableMatchesBreadthFirstSolver()
+    {
+        TestBoards.assertMatchesBreadthFirstSolver(new IterativeDeepeningSolver(SMALL_TABLE_BITS), new Random(11), BOARDS);
+    }
+}
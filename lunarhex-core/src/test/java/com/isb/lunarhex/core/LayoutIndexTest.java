@@ -0,0 +1,53 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the layout index numbers every layout of each number of pieces
+ * exactly once.
+ *
+ * @author Ian Baker
+ */
+public class LayoutIndexTest
+{
+    /**
+     * Tests that unranking every index gives a layout with the number of pieces
+     * that ranks back to the index, and that the layouts with red on a hexagon
+     * start at the first index of the hexagon.
+     */
+    @Test
+    public void rankUnrank()
+    {
+        for (int pieces = 1; pieces <= BoardState.MAX_PIECES; pieces++)
+        {
+            int red = -1;
+            for (int index = 0; index < LayoutIndex.size(pieces); index++)
+            {
+                long layout = LayoutIndex.unrank(pieces, index);
+                assertEquals(pieces, Integer.bitCount(Layout.occupancy(layout)));
+                assertTrue((Layout.occupancy(layout) & (1 << Layout.red(layout))) != 0);
+                assertEquals("Index " + index + " of " + pieces + " pieces", index, LayoutIndex.rank(layout));
+                if (Layout.red(layout) != red)
+                {
+                    red = Layout.red(layout);
+                    assertEquals(index, LayoutIndex.first(pieces, red));
+                }
+            }
+            assertEquals(BoardState.CELLS - 1, red);
+        }
+    }
+
+    /**
+     * Tests the number of layouts against counting by hand.
+     */
+    @Test
+    public void size()
+    {
+        assertEquals(27, LayoutIndex.size(1));
+        assertEquals(27 * 26, LayoutIndex.size(2));
+        assertEquals(27 * 65780, LayoutIndex.size(6));
+    }
+}
@@ -0,0 +1,140 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the reflection and canonical form of layouts, and that sliding and
+ * finding previous layouts agree with the moves of the packed board state.
+ *
+ * @author Ian Baker
+ */
+public class LayoutTest
+{
+    /**
+     * Constants
+     */
+    private static final int RANDOM_BOARDS = 1000;
+
+    /**
+     * Tests the reflection against boards mirrored by hand, including the two
+     * hexagons of the bottom row.
+     */
+    @Test
+    public void mirror()
+    {
+        assertEquals(Layout.of(BoardState.fromString("R-4,G-8,B-10,Y-24")), Layout.mirror(Layout.of(BoardState.fromString("R-0,G-6,B-14,Y-20"))));
+        assertEquals(Layout.of(BoardState.fromString("R-26,G-12")), Layout.mirror(Layout.of(BoardState.fromString("R-25,G-12"))));
+        long layout = Layout.of(BoardState.fromString("R-17,G-7"));
+        assertEquals(layout, Layout.mirror(layout));
+        assertEquals(layout, Layout.canonical(layout));
+    }
+
+    /**
+     * Tests that reflecting twice gives the layout back, and that a layout and its
+     * reflection share the canonical layout, which is the smaller of the two.
+     */
+    @Test
+    public void canonical()
+    {
+        Random random = new Random(7);
+        for (int i = 0; i < RANDOM_BOARDS; i++)
+        {
+            long layout = Layout.of(TestBoards.random(random, 1 + random.nextInt(BoardState.MAX_PIECES)));
+            long mirrored = Layout.mirror(layout);
+            assertEquals(layout, Layout.mirror(mirrored));
+            assertEquals(Layout.canonical(layout), Layout.canonical(mirrored));
+            assertEquals(Math.min(layout, mirrored), Layout.canonical(layout));
+            assertEquals(Integer.bitCount(Layout.occupancy(layout)), Integer.bitCount(Layout.occupancy(mirrored)));
+        }
+    }
+
+    /**
+     * Tests that sliding a layout matches the layout after every move of the board,
+     * that each board is one of the previous layouts of every layout it reaches,
+     * and that every previous layout reaches the layout with one slide.
+     */
+    @Test
+    public void slideAndPrevious()
+    {
+        Random random = new Random(7);
+        long[] previous = new long[Layout.MAX_PREVIOUS];
+        for (int i = 0; i < RANDOM_BOARDS; i++)
+        {
+            long state = TestBoards.random(random, 1 + random.nextInt(BoardState.MAX_PIECES));
+            long layout = Layout.of(state);
+            for (int move = 0; move < BoardState.pieceCount(state) * BoardState.DIRECTIONS; move++)
+            {
+                long result = BoardState.afterMove(state, move);
+                int index = BoardState.position(state, move / BoardState.DIRECTIONS);
+                long slid = Layout.slide(layout, index, move % BoardState.DIRECTIONS);
+                if (result == BoardState.INVALID)
+                {
+                    assertEquals(BoardState.INVALID, slid);
+                    continue;
+                }
+                assertEquals(Layout.of(result), slid);
+                assertTrue("Previous of " + BoardState.toString(result), contains(previous, Layout.previous(slid, previous), layout));
+            }
+            int count = Layout.previous(layout, previous);
+            for (int j = 0; j < count; j++) assertTrue(reaches(previous[j], layout));
+        }
+    }
+
+    /**
+     * Tests that a layout turned back into a board keeps its layout, and that
+     * replaying reflected layouts keeps the colors of the pieces.
+     */
+    @Test
+    public void toStateAndReplay()
+    {
+        long state = BoardState.fromString("R-0,G-6,B-14,Y-20");
+        assertEquals(Layout.of(state), Layout.of(Layout.toState(Layout.of(state))));
+        String[] solution = {"R-0,G-6,B-14,Y-20", "R-0,G-13,B-14,Y-20", "R-15,G-13,B-14,Y-20", "R-12,G-13,B-14,Y-20"};
+        long[] layouts = new long[solution.length];
+        for (int i = 0; i < solution.length; i++) layouts[i] = Layout.canonicalOf(BoardState.fromString(solution[i]));
+        long[] states = Layout.replay(state, layouts);
+        for (int i = 0; i < solution.length; i++) assertEquals(solution[i], BoardState.toString(states[i]));
+    }
+
+    /**
+     * Returns whether the layout is one of the first entries of the array.
+     *
+     * @param   layouts - The layouts
+     * @param   count - The number of entries to search
+     * @param   layout - The layout to find
+     * @return  Whether the layout was found
+     */
+    private static boolean contains(long[] layouts, int count, long layout)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (layouts[i] == layout) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether one slide turns a layout into the other.
+     *
+     * @param   from - The layout before the slide
+     * @param   to - The layout after the slide
+     * @return  Whether a slide of any piece reaches the layout
+     */
+    private static boolean reaches(long from, long to)
+    {
+        for (int index = 0; index < BoardState.CELLS; index++)
+        {
+            if ((Layout.occupancy(from) & (1 << index)) == 0) continue;
+            for (int dir = 0; dir < BoardState.DIRECTIONS; dir++)
+            {
+                if (Layout.slide(from, index, dir) == to) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,137 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the long int map, above all that removing with backward shifts keeps
+ * every other key reachable.
+ *
+ * @author Ian Baker
+ */
+public class LongIntMapTest
+{
+    /**
+     * Constants
+     */
+    private static final int KEYS = 64;
+    private static final int OPERATIONS = 200000;
+    private static final int MISSING = -1;
+
+    /**
+     * Tests putting, replacing and looking up keys.
+     */
+    @Test
+    public void putAndGet()
+    {
+        LongIntMap map = new LongIntMap(4);
+        assertTrue(map.put(BoardState.INVALID, 1));
+        assertTrue(map.put(BoardState.EMPTY, 2));
+        assertFalse(map.put(BoardState.EMPTY, 3));
+        assertFalse(map.putIfAbsent(BoardState.INVALID, 4));
+        assertEquals(1, map.get(BoardState.INVALID, MISSING));
+        assertEquals(3, map.get(BoardState.EMPTY, MISSING));
+        assertEquals(MISSING, map.get(5L, MISSING));
+        assertEquals(2, map.size());
+    }
+
+    /**
+     * Tests removing every key of a full run in turn, so each removal shifts back
+     * entries of runs that collide and wrap around the end of the table, and
+     * that every other key is still found.
+     */
+    @Test
+    public void removeKeepsOtherKeys()
+    {
+        for (int removed = 0; removed < KEYS; removed++)
+        {
+            // Sized for half the keys, so the table grows once and is then as full as it gets
+            LongIntMap map = new LongIntMap(KEYS / 2);
+            for (int key = 0; key < KEYS; key++) map.put(key, key);
+            assertTrue(map.remove(removed));
+            assertFalse(map.remove(removed));
+            assertEquals(KEYS - 1, map.size());
+            for (int key = 0; key < KEYS; key++)
+            {
+                assertEquals("Key " + key + " after removing " + removed, (key == removed) ? MISSING : key, map.get(key, MISSING));
+            }
+        }
+    }
+
+    /**
+     * Tests removing every key one by one in a random order.
+     */
+    @Test
+    public void removeAll()
+    {
+        Random random = new Random(14);
+        LongIntMap map = new LongIntMap(KEYS);
+        long[] keys = new long[KEYS];
+        for (int i = 0; i < KEYS; i++)
+        {
+            keys[i] = random.nextLong();
+            map.put(keys[i], i);
+        }
+        for (int i = 0; i < KEYS; i++)
+        {
+            assertTrue(map.remove(keys[i]));
+            for (int j = i + 1; j < KEYS; j++) assertEquals(j, map.get(keys[j], MISSING));
+        }
+        assertEquals(0, map.size());
+    }
+
+    /**
+     * Tests random puts and removes of few keys against a hash map, so the
+     * probe runs are built up and torn down many times over.
+     */
+    @Test
+    public void matchesHashMap()
+    {
+        Random random = new Random(14);
+        LongIntMap map = new LongIntMap(KEYS / 4);
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        for (int i = 0; i < OPERATIONS; i++)
+        {
+            long key = random.nextInt(KEYS);
+            switch (random.nextInt(3))
+            {
+                case 0:
+                    assertEquals(expected.put(key, i) == null, map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key) != null, map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Integer> entry : expected.entrySet())
+        {
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey(), MISSING));
+        }
+    }
+
+    /**
+     * Tests that a cleared map is empty and can be reused.
+     */
+    @Test
+    public void clear()
+    {
+        LongIntMap map = new LongIntMap(KEYS);
+        for (int key = 0; key < KEYS; key++) map.put(key, key);
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(0));
+        assertTrue(map.put(0, 1));
+        assertEquals(1, map.get(0, MISSING));
+    }
+}
@@ -0,0 +1,115 @@
+package com.isb.lunarhex.core;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the optimal moves and the number of shortest solutions against
+ * enumerating every sequence of moves as long as the shortest solution.
+ *
+ * @author Ian Baker
+ */
+public class OptimalMovesTest
+{
+    /**
+     * Constants
+     */
+    private static final int BOARDS = 300;
+    private static final int MAX_DISTANCE = 5;
+
+    /**
+     * The distances of every layout, built once for all tests
+     */
+    private static DistanceDatabase distances;
+
+    /**
+     * Builds the distances.
+     */
+    @BeforeClass
+    public static void build()
+    {
+        distances = new DistanceDatabase(DistanceDatabaseBuilder.encode(DistanceDatabaseBuilder.build()));
+    }
+
+    /**
+     * Tests random unsolved boards of every number of pieces, solvable in a few
+     * moves so every sequence can be enumerated.
+     */
+    @Test
+    public void matchesEnumeration()
+    {
+        Random random = new Random(17);
+        BreadthFirstSolver solver = new BreadthFirstSolver();
+        OptimalMoves optimal = new OptimalMoves(distances);
+        int[] moves = new int[BoardState.MAX_MOVES];
+        int boards = 0;
+        while (boards < BOARDS)
+        {
+            long state = TestBoards.random(random, 2 + (boards % (BoardState.MAX_PIECES - 1)));
+            long[] shortest = solver.solve(state);
+            if (shortest == null || shortest.length == 1 || shortest.length - 1 > MAX_DISTANCE) continue;
+            int distance = shortest.length - 1;
+            String board = BoardState.toString(state);
+            assertEquals("Solutions of " + board, solutions(state, distance), optimal.count(state));
+            assertEquals(optimal.count(state) == 1, optimal.isUnique(state));
+            int count = optimal.moves(state, moves);
+            int found = 0;
+            for (int move = 0; move < BoardState.pieceCount(state) * BoardState.DIRECTIONS; move++)
+            {
+                long result = BoardState.afterMove(state, move);
+                if (result == BoardState.INVALID || solutions(result, distance - 1) == 0) continue;
+                assertEquals("Optimal move of " + board, move, moves[found++]);
+            }
+            assertEquals("Optimal moves of " + board, found, count);
+            boards++;
+        }
+    }
+
+    /**
+     * Tests the counts of solved and unsolvable boards, and that forgetting the
+     * memoized counts does not change them.
+     */
+    @Test
+    public void solvedAndUnsolvable()
+    {
+        OptimalMoves optimal = new OptimalMoves(distances);
+        int[] moves = new int[BoardState.MAX_MOVES];
+        long solved = BoardState.fromString("R-12,G-7");
+        assertEquals(1, optimal.count(solved));
+        assertEquals(0, optimal.moves(solved, moves));
+        long unsolvable = BoardState.create(new int[] {0}, 1);
+        assertEquals(0, optimal.count(unsolvable));
+        assertFalse(optimal.isUnique(unsolvable));
+        long state = BoardState.fromString("R-17,G-7");
+        assertTrue(optimal.isUnique(state));
+        optimal.clear();
+        assertTrue(optimal.isUnique(state));
+    }
+
+    /**
+     * Returns the number of move sequences of the given length that end solved.
+     * When the length is the fewest moves to solve the board these are exactly
+     * the shortest solutions, and when it is one less than the fewest moves of
+     * the board before a move it is above zero only if the move is optimal.
+     *
+     * @param   state - The packed board state
+     * @param   length - The number of moves
+     * @return  The number of sequences
+     */
+    private static long solutions(long state, int length)
+    {
+        if (length == 0) return BoardState.isSolved(state) ? 1 : 0;
+        int[] moves = new int[BoardState.MAX_MOVES];
+        long[] results = new long[BoardState.MAX_MOVES];
+        int count = BoardState.generateMoves(state, moves, results);
+        long total = 0;
+        for (int i = 0; i < count; i++) total += solutions(results[i], length - 1);
+        return total;
+    }
+}
@@ -0,0 +1,60 @@
+package com.isb.lunarhex.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests that the parallel distance builder computes the same distances as the
+ * distance database builder.
+ *
+ * @author Ian Baker
+ */
+public class ParallelDistanceBuilderTest
+{
+    /**
+     * Constants
+     */
+    private static final int THREADS = 4;
+
+    /**
+     * The pool the levels are expanded on, more threads than a small machine has
+     * cores so the tasks race for layouts
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Creates the pool.
+     */
+    @Before
+    public void createPool()
+    {
+        pool = new ForkJoinPool(THREADS);
+    }
+
+    /**
+     * Shuts the pool down.
+     */
+    @After
+    public void shutdownPool()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Tests every number of pieces against the distance database builder.
+     */
+    @Test
+    public void matchesDistanceDatabaseBuilder()
+    {
+        ParallelDistanceBuilder builder = new ParallelDistanceBuilder(pool);
+        for (int pieces = DistanceDatabase.MIN_PIECES; pieces <= DistanceDatabase.MAX_PIECES; pieces++)
+        {
+            assertArrayEquals("Distances of " + pieces + " pieces", DistanceDatabaseBuilder.build(pieces), builder.build(pieces));
+        }
+    }
+}
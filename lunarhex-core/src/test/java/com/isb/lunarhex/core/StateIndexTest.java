@@ -0,0 +1,71 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the state index numbers every colored board state exactly once.
+ *
+ * @author Ian Baker
+ */
+public class StateIndexTest
+{
+    /**
+     * Constants
+     */
+    private static final int FULL_PIECES = 5;
+    private static final int RANDOM_BOARDS = 100000;
+
+    /**
+     * Tests that unranking every index up to five pieces gives a board state with
+     * the number of pieces that ranks back to the index.
+     */
+    @Test
+    public void rankUnrank()
+    {
+        for (int pieces = 1; pieces <= FULL_PIECES; pieces++)
+        {
+            for (int index = 0; index < StateIndex.size(pieces); index++)
+            {
+                long state = StateIndex.unrank(pieces, index);
+                assertEquals(pieces, BoardState.pieceCount(state));
+                assertEquals(pieces, Integer.bitCount(BoardState.occupancy(state)));
+                assertEquals("Index " + index + " of " + pieces + " pieces", index, StateIndex.rank(state));
+            }
+        }
+    }
+
+    /**
+     * Tests that random board states of six pieces rank to an index in range
+     * that unranks back to the board.
+     */
+    @Test
+    public void randomBoards()
+    {
+        Random random = new Random(12);
+        for (int i = 0; i < RANDOM_BOARDS; i++)
+        {
+            long state = TestBoards.random(random, BoardState.MAX_PIECES);
+            int index = StateIndex.rank(state);
+            assertTrue(0 <= index && index < StateIndex.size(BoardState.MAX_PIECES));
+            assertEquals(BoardState.toString(state), state, StateIndex.unrank(BoardState.MAX_PIECES, index));
+        }
+    }
+
+    /**
+     * Tests that boards with the same layout and different colors rank apart.
+     */
+    @Test
+    public void colorsRankApart()
+    {
+        int first = StateIndex.rank(BoardState.fromString("R-0,G-6,B-14,Y-20"));
+        int second = StateIndex.rank(BoardState.fromString("R-0,G-14,B-6,Y-20"));
+        assertEquals(first / 6, second / 6);
+        assertNotEquals(first, second);
+    }
+}
@@ -0,0 +1,90 @@
+package com.isb.lunarhex.core;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The test boards class places random boards and checks solutions and solvers
+ * for the tests. The methods are static and the class should not need to be
+ * constructed.
+ *
+ * @author Ian Baker
+ */
+class TestBoards
+{
+    /**
+     * Returns a board of the given number of pieces on random distinct hexagons.
+     *
+     * @param   random - The random source
+     * @param   pieces - The number of pieces including red
+     * @return  The packed board state
+     */
+    static long random(Random random, int pieces)
+    {
+        int[] cells = new int[BoardState.CELLS];
+        for (int i = 0; i < cells.length; i++) cells[i] = i;
+        for (int i = 0; i < pieces; i++)
+        {
+            int j = i + random.nextInt(cells.length - i);
+            int cell = cells[i];
+            cells[i] = cells[j];
+            cells[j] = cell;
+        }
+        return BoardState.create(cells, pieces);
+    }
+
+    /**
+     * Asserts that the path starts at the board, takes one legal move per step and
+     * ends solved.
+     *
+     * @param   state - The packed board state
+     * @param   path - The board states from the given state to the solved board
+     */
+    static void assertSolution(long state, long[] path)
+    {
+        assertEquals(state, path[0]);
+        for (int i = 1; i < path.length; i++)
+        {
+            int move = BoardState.moveBetween(path[i - 1], path[i]);
+            assertNotEquals("No move at step " + i + " of " + BoardState.toString(state), -1, move);
+            assertEquals("Illegal move at step " + i + " of " + BoardState.toString(state), path[i], BoardState.afterMove(path[i - 1], move));
+        }
+        assertTrue("Not solved " + BoardState.toString(state), BoardState.isSolved(path[path.length - 1]));
+    }
+
+    /**
+     * Asserts that the solver finds solutions as short as the breadth first solver
+     * on random boards of every number of pieces, and finds nothing for the boards
+     * it can not solve, including red alone off the center. A solved board must be
+     * its own solution.
+     *
+     * @param   solver - The solver to test
+     * @param   random - The random source of the boards
+     * @param   boards - The number of random boards
+     */
+    static void assertMatchesBreadthFirstSolver(Solver solver, Random random, int boards)
+    {
+        long solved = BoardState.create(new int[] {BoardState.CENTER, 0}, 2);
+        assertArrayEquals(new long[] {solved}, solver.solve(solved));
+        assertNull(solver.solve(BoardState.create(new int[] {0}, 1)));
+        BreadthFirstSolver expected = new BreadthFirstSolver();
+        for (int i = 0; i < boards; i++)
+        {
+            long state = random(random, 2 + (i % (BoardState.MAX_PIECES - 1)));
+            long[] shortest = expected.solve(state);
+            long[] path = solver.solve(state);
+            if (shortest == null)
+            {
+                assertNull("Solved unsolvable " + BoardState.toString(state), path);
+                continue;
+            }
+            assertEquals("Length of " + BoardState.toString(state), shortest.length, path.length);
+            assertSolution(state, path);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.isb.lunarhex.core;
+
+import static org.junit.Assert.fail;
+
+/**
+ * The test threads class waits on the background threads of the workers for
+ * the tests. The methods are static and the class should not need to be
+ * constructed.
+ *
+ * @author Ian Baker
+ */
+class TestThreads
+{
+    /**
+     * Constants
+     */
+    static final long TIMEOUT_MS = 10000;
+    private static final long POLL_MS = 1;
+
+    /**
+     * Returns the number of live threads with the name.
+     *
+     * @param   name - The thread name
+     * @return  The number of live threads
+     */
+    static int count(String name)
+    {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if (thread.isAlive() && name.equals(thread.getName())) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Waits until no more than the given number of threads with the name are alive.
+     *
+     * @param   name - The thread name
+     * @param   expected - The number of threads expected to be left
+     */
+    static void awaitCount(String name, int expected)
+    {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (count(name) > expected)
+        {
+            if (System.currentTimeMillis() > deadline) fail(count(name) + " " + name + " threads left, expected " + expected);
+            sleep();
+        }
+    }
+
+    /**
+     * Sleeps for a moment between polls.
+     */
+    static void sleep()
+    {
+        try
+        {
+            Thread.sleep(POLL_MS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            fail("Interrupted");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.isb.lunarhex.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests that updating a hash along a sequence of moves always gives the hash
+ * of the board computed from scratch.
+ *
+ * @author Ian Baker
+ */
+public class ZobristTest
+{
+    /**
+     * Constants
+     */
+    private static final int WALKS = 200;
+    private static final int WALK_LENGTH = 50;
+
+    /**
+     * Tests both updates against a fresh hash along random walks of legal moves.
+     */
+    @Test
+    public void updateMatchesHash()
+    {
+        Random random = new Random(4);
+        int[] moves = new int[BoardState.MAX_MOVES];
+        long[] results = new long[BoardState.MAX_MOVES];
+        for (int walk = 0; walk < WALKS; walk++)
+        {
+            long state = TestBoards.random(random, 1 + random.nextInt(BoardState.MAX_PIECES));
+            long hash = Zobrist.hash(state);
+            long pieceHash = hash;
+            for (int step = 0; step < WALK_LENGTH; step++)
+            {
+                int count = BoardState.generateMoves(state, moves, results);
+                if (count == 0) break;
+                int i = random.nextInt(count);
+                int piece = moves[i] / BoardState.DIRECTIONS;
+                hash = Zobrist.update(hash, state, moves[i], results[i]);
+                pieceHash = Zobrist.update(pieceHash, piece, BoardState.position(state, piece), BoardState.position(results[i], piece));
+                state = results[i];
+                assertEquals("Hash of " + BoardState.toString(state), Zobrist.hash(state), hash);
+                assertEquals("Hash of " + BoardState.toString(state), hash, pieceHash);
+            }
+        }
+    }
+
+    /**
+     * Tests that the hash depends on the colors of the pieces and not only on
+     * the hexagons they are on.
+     */
+    @Test
+    public void hashDependsOnColors()
+    {
+        assertNotEquals(Zobrist.hash(BoardState.fromString("R-17,G-7")), Zobrist.hash(BoardState.fromString("R-7,G-17")));
+        assertEquals(0, Zobrist.hash(BoardState.EMPTY));
+    }
+}
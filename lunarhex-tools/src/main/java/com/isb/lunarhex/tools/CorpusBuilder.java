@@ -0,0 +1,388 @@
+package com.isb.lunarhex.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.isb.lunarhex.core.BoardCorpus;
+import com.isb.lunarhex.core.BoardState;
+import com.isb.lunarhex.core.DistanceDatabase;
+import com.isb.lunarhex.core.Layout;
+import com.isb.lunarhex.core.LayoutIndex;
+import com.isb.lunarhex.core.ParallelDistanceBuilder;
+
+/**
+ * The corpus builder regenerates the small board corpus shipped in the
+ * assets. The distance of every layout is computed first, then every
+ * canonical layout is bucketed by its distance across a fork join pool, so
+ * boards that only differ by reflection are found once. Each bucket is
+ * sampled down to the requested number of boards, the helpers are given
+ * random colors and the solution follows the distances down to the solved
+ * board, so every stored solution is optimal.
+ *
+ * @author Ian Baker
+ */
+public class CorpusBuilder
+{
+    /**
+     * Constants
+     */
+    public static final int BUCKETS = BoardCorpus.MAX_MOVES;
+    public static final int DEFAULT_BOARDS_PER_BUCKET = 500;
+    public static final long DEFAULT_SEED = 0x4C756E6172L;
+    private static final int LAYOUTS_PER_TASK = 4096;
+    private static final long REPORT_INTERVAL_MS = 1000;
+
+    /**
+     * The distances of the layouts with each number of pieces
+     */
+    private final byte[][] distances;
+
+    /**
+     * The canonical layouts found for each number of moves
+     */
+    private final Bucket[] buckets;
+
+    /**
+     * The number of layouts scanned so far, read by the progress reporter
+     */
+    private final AtomicLong scanned;
+
+    /**
+     * Builds the corpus and writes it to the file given as the first argument,
+     * optionally followed by the number of boards per bucket and the random seed.
+     *
+     * @param   args - The output file, boards per bucket and seed
+     * @throws  IOException if the file could not be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 1 || args.length > 3)
+        {
+            System.err.println("Usage: CorpusBuilder <output file> [boards per bucket] [seed]");
+            System.exit(1);
+        }
+        int perBucket = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_BOARDS_PER_BUCKET;
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        System.out.println("Computing distances on " + pool.getParallelism() + " threads");
+        CorpusBuilder builder = new CorpusBuilder(new ParallelDistanceBuilder(pool).build());
+        builder.scan(pool);
+        BoardCorpus corpus = builder.sample(perBucket, new Random(seed));
+        File file = new File(args[0]);
+        corpus.write(file);
+        System.out.println("Wrote " + corpus.size() + " boards to " + file + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Constructor for the builder.
+     *
+     * @param   distances - The distances of the layouts with each number of pieces
+     */
+    public CorpusBuilder(byte[][] distances)
+    {
+        this.distances = distances;
+        buckets = new Bucket[BUCKETS + 1];
+        for (int moves = 1; moves <= BUCKETS; moves++) buckets[moves] = new Bucket();
+        scanned = new AtomicLong();
+    }
+
+    /**
+     * Buckets every solvable canonical layout by its distance, reporting the
+     * boards found per second while running.
+     *
+     * @param   pool - The pool the layouts are scanned on
+     */
+    public void scan(ForkJoinPool pool)
+    {
+        long total = 0;
+        for (int pieces = DistanceDatabase.MIN_PIECES; pieces <= DistanceDatabase.MAX_PIECES; pieces++)
+        {
+            total += LayoutIndex.size(pieces);
+        }
+        Reporter reporter = new Reporter(total);
+        reporter.start();
+        try
+        {
+            for (int pieces = DistanceDatabase.MIN_PIECES; pieces <= DistanceDatabase.MAX_PIECES; pieces++)
+            {
+                pool.invoke(new Scan(pieces, 0, LayoutIndex.size(pieces)));
+            }
+        }
+        finally
+        {
+            reporter.interrupt();
+        }
+        for (int moves = 1; moves <= BUCKETS; moves++)
+        {
+            System.out.println("Moves " + moves + ": " + buckets[moves].size + " boards");
+        }
+    }
+
+    /**
+     * Picks the boards of each bucket at random and writes them with optimal solutions.
+     *
+     * @param   perBucket - The most boards kept for each number of moves
+     * @param   random - The source of the picks and helper colors
+     * @return  The corpus of the boards, ordered by number of moves
+     */
+    public BoardCorpus sample(int perBucket, Random random)
+    {
+        int[] counts = new int[BUCKETS + 1];
+        for (int moves = 1; moves <= BUCKETS; moves++) counts[moves] = Math.min(perBucket, buckets[moves].size);
+        BoardCorpus corpus = BoardCorpus.allocate(counts);
+        int next = 0;
+        for (int moves = 1; moves <= BUCKETS; moves++)
+        {
+            // Sorted first so the picks only depend on the seed, not on the scan order
+            long[] layouts = Arrays.copyOf(buckets[moves].layouts, buckets[moves].size);
+            Arrays.sort(layouts);
+            int picks = Math.min(perBucket, layouts.length);
+            for (int i = 0; i < picks; i++)
+            {
+                int j = i + random.nextInt(layouts.length - i);
+                long layout = layouts[j];
+                layouts[j] = layouts[i];
+                corpus.set(next++, solve(color(layout, random), moves));
+            }
+        }
+        return corpus;
+    }
+
+    /**
+     * Returns the fewest moves to solve the layout.
+     *
+     * @param   layout - The layout
+     * @return  The number of moves or DistanceDatabase.UNSOLVABLE
+     */
+    private int distance(long layout)
+    {
+        return distances[Integer.bitCount(Layout.occupancy(layout))][LayoutIndex.rank(layout)];
+    }
+
+    /**
+     * Returns a board state with the layout and the helpers colored at random.
+     *
+     * @param   layout - The layout
+     * @param   random - The source of the colors
+     * @return  The packed board state
+     */
+    private static long color(long layout, Random random)
+    {
+        long state = Layout.toState(layout);
+        int pieces = BoardState.pieceCount(state);
+        int[] positions = new int[BoardState.MAX_PIECES];
+        for (int i = 0; i < pieces; i++) positions[i] = BoardState.position(state, i);
+        for (int i = pieces - 1; i > 1; i--)
+        {
+            int j = 1 + random.nextInt(i);
+            int position = positions[j];
+            positions[j] = positions[i];
+            positions[i] = position;
+        }
+        return BoardState.create(positions, pieces);
+    }
+
+    /**
+     * Follows moves that lower the distance by one down to the solved board.
+     *
+     * @param   state - The packed board state
+     * @param   moves - The fewest moves to solve the board
+     * @return  The board states from the given state to the solved board
+     * @throws  IllegalStateException if the distances do not lead to a solved board
+     */
+    private long[] solve(long state, int moves)
+    {
+        long[] solution = new long[moves + 1];
+        solution[0] = state;
+        for (int i = 1; i <= moves; i++)
+        {
+            solution[i] = BoardState.INVALID;
+            for (int move = 0; move < BoardState.pieceCount(state) * BoardState.DIRECTIONS && solution[i] == BoardState.INVALID; move++)
+            {
+                long result = BoardState.afterMove(solution[i - 1], move);
+                if (result != BoardState.INVALID && distance(Layout.of(result)) == moves - i) solution[i] = result;
+            }
+            if (solution[i] == BoardState.INVALID)
+            {
+                throw new IllegalStateException("No optimal move from " + BoardState.toString(solution[i - 1]));
+            }
+        }
+        if (!BoardState.isSolved(solution[moves]))
+        {
+            throw new IllegalStateException("Solution does not end solved from " + BoardState.toString(state));
+        }
+        return solution;
+    }
+
+    /**
+     * The growable list of canonical layouts with one number of moves, appended to
+     * under its own lock.
+     */
+    private static class Bucket
+    {
+        /**
+         * The layouts, valid up to size
+         */
+        long[] layouts = new long[64];
+
+        /**
+         * The number of layouts
+         */
+        int size;
+
+        /**
+         * Appends the layouts.
+         *
+         * @param   added - The layouts to append
+         * @param   count - The number of layouts to append
+         */
+        synchronized void addAll(long[] added, int count)
+        {
+            if (size + count > layouts.length)
+            {
+                layouts = Arrays.copyOf(layouts, Math.max(layouts.length * 2, size + count));
+            }
+            System.arraycopy(added, 0, layouts, size, count);
+            size += count;
+        }
+    }
+
+    /**
+     * Scans a range of layout indices, splitting the range in half until it is
+     * small enough.
+     */
+    private class Scan extends RecursiveAction
+    {
+        /**
+         * Constants
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The number of pieces including red
+         */
+        private final int pieces;
+
+        /**
+         * The first layout index of the range
+         */
+        private final int start;
+
+        /**
+         * The layout index after the range
+         */
+        private final int end;
+
+        /**
+         * Constructor for the task.
+         *
+         * @param   pieces - The number of pieces including red
+         * @param   start - The first layout index of the range
+         * @param   end - The layout index after the range
+         */
+        Scan(int pieces, int start, int end)
+        {
+            this.pieces = pieces;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Buckets the canonical layouts of the range or splits it between two tasks.
+         */
+        @Override
+        protected void compute()
+        {
+            if (end - start > LAYOUTS_PER_TASK)
+            {
+                int middle = (start + end) >>> 1;
+                invokeAll(new Scan(pieces, start, middle), new Scan(pieces, middle, end));
+                return;
+            }
+            int[] counts = new int[BUCKETS + 1];
+            for (int index = start; index < end; index++)
+            {
+                int moves = distances[pieces][index];
+                if (moves >= 1 && moves <= BUCKETS) counts[moves]++;
+            }
+            long[][] found = new long[BUCKETS + 1][];
+            for (int moves = 1; moves <= BUCKETS; moves++)
+            {
+                found[moves] = new long[counts[moves]];
+                counts[moves] = 0;
+            }
+            for (int index = start; index < end; index++)
+            {
+                int moves = distances[pieces][index];
+                if (moves < 1 || moves > BUCKETS) continue;
+                long layout = LayoutIndex.unrank(pieces, index);
+                if (Layout.canonical(layout) != layout) continue;
+                found[moves][counts[moves]++] = layout;
+            }
+            for (int moves = 1; moves <= BUCKETS; moves++)
+            {
+                if (counts[moves] > 0) buckets[moves].addAll(found[moves], counts[moves]);
+            }
+            scanned.addAndGet(end - start);
+        }
+    }
+
+    /**
+     * Prints the progress of the scan and the boards found per second until interrupted.
+     */
+    private class Reporter extends Thread
+    {
+        /**
+         * The number of layouts to scan
+         */
+        private final long total;
+
+        /**
+         * Constructor for the reporter.
+         *
+         * @param   total - The number of layouts to scan
+         */
+        Reporter(long total)
+        {
+            this.total = total;
+            setDaemon(true);
+        }
+
+        /**
+         * Prints the progress every report interval.
+         */
+        @Override
+        public void run()
+        {
+            long start = System.currentTimeMillis();
+            while (!isInterrupted())
+            {
+                try
+                {
+                    Thread.sleep(REPORT_INTERVAL_MS);
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                long boards = 0;
+                for (int moves = 1; moves <= BUCKETS; moves++)
+                {
+                    synchronized (buckets[moves])
+                    {
+                        boards += buckets[moves].size;
+                    }
+                }
+                long elapsed = Math.max(1, System.currentTimeMillis() - start);
+                System.out.println("Scanned " + scanned.get() + " of " + total + " layouts, " + boards + " boards, "
+                        + ((boards * 1000) / elapsed) + " boards/s");
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.isb.lunarhex.tools;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.isb.lunarhex.core.BoardCorpus;
+import com.isb.lunarhex.core.CompressedBoard;
+import com.isb.lunarhex.core.Layout;
+import com.isb.lunarhex.core.LongIntMap;
+
+/**
+ * The corpus converter turns a board file of comma separated boards in
+ * compressed format into a board corpus. Boards that only differ by helper
+ * colors or reflection from an earlier board, or from a board of the
+ * excluded board files such as the main boards, are dropped and the rest are
+ * ordered by the number of moves, keeping the order of the file otherwise.
+ *
+ * @author Ian Baker
+ */
+public class CorpusConverter
+{
+    /**
+     * Converts the board file given as the first argument into the corpus file
+     * given as the second, leaving out the boards of any further board files.
+     *
+     * @param   args - The board file, the corpus file and the excluded board files
+     * @throws  IOException if a file could not be read or written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage: CorpusConverter <board file> <corpus file> [excluded board file...]");
+            System.exit(1);
+        }
+        String[] boards = read(new File(args[0]));
+        LongIntMap seen = new LongIntMap(boards.length);
+        for (int i = 2; i < args.length; i++)
+        {
+            String[] excluded = read(new File(args[i]));
+            for (int j = 0; j < excluded.length; j++) seen.put(Layout.canonicalOf(CompressedBoard.board(excluded[j])), j);
+        }
+        BoardCorpus corpus = convert(boards, seen);
+        File file = new File(args[1]);
+        corpus.write(file);
+        System.out.println("Wrote " + corpus.size() + " of " + boards.length + " boards to " + file);
+    }
+
+    /**
+     * Reads the single comma separated line of a board file.
+     *
+     * @param   file - The board file
+     * @return  The boards in compressed format
+     * @throws  IOException if the file could not be read
+     */
+    public static String[] read(File file) throws IOException
+    {
+        BufferedReader input = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try
+        {
+            return input.readLine().split(",");
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Orders the boards not seen before by number of moves into a corpus.
+     *
+     * @param   boards - The boards in compressed format
+     * @param   seen - The canonical layouts to leave out, the kept boards are added
+     * @return  The corpus
+     * @throws  IllegalArgumentException if a board takes more than BoardCorpus.MAX_MOVES moves
+     */
+    public static BoardCorpus convert(String[] boards, LongIntMap seen)
+    {
+        List<List<String>> buckets = new ArrayList<List<String>>();
+        for (int moves = 0; moves <= BoardCorpus.MAX_MOVES; moves++) buckets.add(new ArrayList<String>());
+        for (int i = 0; i < boards.length; i++)
+        {
+            int moves = CompressedBoard.moveCount(boards[i]);
+            if (moves > BoardCorpus.MAX_MOVES) throw new IllegalArgumentException("Board takes too many moves: " + boards[i]);
+            if (!seen.putIfAbsent(Layout.canonicalOf(CompressedBoard.board(boards[i])), i)) continue;
+            buckets.get(moves).add(boards[i]);
+        }
+        int[] counts = new int[BoardCorpus.MAX_MOVES + 1];
+        for (int moves = 0; moves <= BoardCorpus.MAX_MOVES; moves++) counts[moves] = buckets.get(moves).size();
+        BoardCorpus corpus = BoardCorpus.allocate(counts);
+        int next = 0;
+        for (int moves = 0; moves <= BoardCorpus.MAX_MOVES; moves++)
+        {
+            for (String board : buckets.get(moves)) corpus.set(next++, CompressedBoard.solution(board));
+        }
+        return corpus;
+    }
+}
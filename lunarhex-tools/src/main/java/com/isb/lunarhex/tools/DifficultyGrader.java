@@ -0,0 +1,150 @@
+package com.isb.lunarhex.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.isb.lunarhex.core.BoardCorpus;
+import com.isb.lunarhex.core.DifficultyIndex;
+import com.isb.lunarhex.core.DifficultyMetrics;
+import com.isb.lunarhex.core.DistanceDatabase;
+import com.isb.lunarhex.core.DistanceDatabaseBuilder;
+import com.isb.lunarhex.core.ParallelDistanceBuilder;
+
+/**
+ * The difficulty grader measures the difficulty metrics of every board of a
+ * board corpus across a fork join pool and writes them as a difficulty index
+ * in the order of the corpus. The distances are computed in memory first.
+ *
+ * @author Ian Baker
+ */
+public class DifficultyGrader
+{
+    /**
+     * Constants
+     */
+    private static final int BOARDS_PER_TASK = 64;
+
+    /**
+     * Grades the corpus file given as the first argument and writes the index to
+     * the file given as the second.
+     *
+     * @param   args - The corpus file and the index file
+     * @throws  IOException if a file could not be read or written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.err.println("Usage: DifficultyGrader <corpus file> <index file>");
+            System.exit(1);
+        }
+        long start = System.currentTimeMillis();
+        BoardCorpus corpus = BoardCorpus.map(new File(args[0]));
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        DistanceDatabase distances = new DistanceDatabase(DistanceDatabaseBuilder.encode(new ParallelDistanceBuilder(pool).build()));
+        DifficultyIndex index = grade(pool, distances, corpus);
+        File file = new File(args[1]);
+        index.write(file);
+        System.out.println("Graded " + corpus.size() + " boards into " + file + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Measures every board.
+     *
+     * @param   pool - The pool the boards are measured on
+     * @param   distances - The fewest moves to solve every layout
+     * @param   corpus - The boards
+     * @return  The difficulty index of the boards in order
+     */
+    public static DifficultyIndex grade(ForkJoinPool pool, final DistanceDatabase distances, BoardCorpus corpus)
+    {
+        DifficultyIndex index = DifficultyIndex.allocate(corpus.size());
+        // One set of buffers and solution count memo per worker thread
+        ThreadLocal<DifficultyMetrics> metrics = new ThreadLocal<DifficultyMetrics>()
+        {
+            @Override
+            protected DifficultyMetrics initialValue()
+            {
+                return new DifficultyMetrics(distances);
+            }
+        };
+        pool.invoke(new Grade(corpus, index, metrics, 0, corpus.size()));
+        return index;
+    }
+
+    /**
+     * Measures a range of boards, splitting the range in half until it is small enough.
+     */
+    private static class Grade extends RecursiveAction
+    {
+        /**
+         * Constants
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The boards
+         */
+        private final BoardCorpus corpus;
+
+        /**
+         * The index the metrics are stored in, each task writing its own records
+         */
+        private final DifficultyIndex index;
+
+        /**
+         * The metrics of the current thread
+         */
+        private final ThreadLocal<DifficultyMetrics> metrics;
+
+        /**
+         * The first board of the range
+         */
+        private final int start;
+
+        /**
+         * The board after the range
+         */
+        private final int end;
+
+        /**
+         * Constructor for the task.
+         *
+         * @param   corpus - The boards
+         * @param   index - The index the metrics are stored in
+         * @param   metrics - The metrics of the current thread
+         * @param   start - The first board of the range
+         * @param   end - The board after the range
+         */
+        Grade(BoardCorpus corpus, DifficultyIndex index, ThreadLocal<DifficultyMetrics> metrics, int start, int end)
+        {
+            this.corpus = corpus;
+            this.index = index;
+            this.metrics = metrics;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Measures the range or splits it between two tasks.
+         */
+        @Override
+        protected void compute()
+        {
+            if (end - start > BOARDS_PER_TASK)
+            {
+                int middle = (start + end) >>> 1;
+                invokeAll(new Grade(corpus, index, metrics, start, middle), new Grade(corpus, index, metrics, middle, end));
+                return;
+            }
+            DifficultyMetrics measure = metrics.get();
+            for (int i = start; i < end; i++)
+            {
+                measure.measure(corpus.state(i));
+                index.set(i, measure);
+            }
+        }
+    }
+}
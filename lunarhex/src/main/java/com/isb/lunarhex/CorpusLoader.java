@@ -0,0 +1,187 @@
+package com.isb.lunarhex;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import com.isb.lunarhex.core.BoardCorpus;
+import com.isb.lunarhex.core.DifficultyIndex;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The corpus loader maps the random board corpus and its difficulty index on
+ * a background thread, so neither is loaded on the frame loop. Callers never
+ * wait for the load, the corpus and the index read as not available until it
+ * finishes.
+ *
+ * @author Ian Baker
+ */
+public class CorpusLoader implements Callable<Void>
+{
+    /**
+     * The context the assets are opened from
+     */
+    private final Context context;
+
+    /**
+     * The result of the load, null until requested
+     */
+    private Future<Void> loaded;
+
+    /**
+     * The random boards, null if the corpus could not be mapped
+     */
+    private BoardCorpus corpus;
+
+    /**
+     * The difficulty metrics of the random boards, null if not available
+     */
+    private DifficultyIndex difficulty;
+
+    /**
+     * Constructor for the loader, nothing is loaded until requested.
+     *
+     * @param   context - The context
+     */
+    public CorpusLoader(Context context)
+    {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Starts loading in the background unless already started.
+     */
+    public synchronized void request()
+    {
+        if (loaded != null) return;
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "CorpusLoader");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        loaded = executor.submit(this);
+        // The thread ends once the load is done
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the random boards without waiting, starting the load if needed.
+     *
+     * @return  The random boards or null if not loaded yet or the corpus could not be mapped
+     */
+    public BoardCorpus corpus()
+    {
+        return isLoaded() ? corpus : null;
+    }
+
+    /**
+     * Returns the difficulty metrics of the random boards without waiting, starting
+     * the load if needed.
+     *
+     * @return  The difficulty index or null if not loaded yet or not available
+     */
+    public DifficultyIndex difficulty()
+    {
+        return isLoaded() ? difficulty : null;
+    }
+
+    /**
+     * Returns whether the load has finished, starting it if needed. The results
+     * of a finished load are visible to the calling thread.
+     *
+     * @return  Whether the load has finished
+     */
+    private synchronized boolean isLoaded()
+    {
+        request();
+        return loaded.isDone();
+    }
+
+    /**
+     * Maps the corpus and the difficulty index, run on the background thread.
+     *
+     * @return  Nothing
+     */
+    @Override
+    public Void call()
+    {
+        long start = System.nanoTime();
+        try
+        {
+            corpus = new BoardCorpus(mapAsset(context, BoardCorpus.FILE_NAME));
+        }
+        catch (IOException e)
+        {
+            Log.e("LunarHex", "Error mapping board corpus: " + e);
+            return null;
+        }
+        catch (IllegalArgumentException e)
+        {
+            Log.e("LunarHex", "Error reading board corpus: " + e);
+            return null;
+        }
+        try
+        {
+            difficulty = new DifficultyIndex(mapAsset(context, DifficultyIndex.FILE_NAME));
+            if (difficulty.size() != corpus.size())
+            {
+                Log.e("LunarHex", "Difficulty index has " + difficulty.size() + " boards, expected " + corpus.size());
+                difficulty = null;
+            }
+        }
+        catch (IOException e)
+        {
+            Log.e("LunarHex", "Error mapping difficulty index: " + e);
+        }
+        catch (IllegalArgumentException e)
+        {
+            Log.e("LunarHex", "Error reading difficulty index: " + e);
+        }
+        StartupTimer.phase("corpus", start);
+        return null;
+    }
+
+    /**
+     * Memory maps a file of the uncompressed assets, read only.
+     *
+     * @param   context - The context
+     * @param   fileName - The name of the asset
+     * @return  The bytes of the asset
+     * @throws  IOException if the asset is missing, compressed or could not be mapped
+     */
+    public static ByteBuffer mapAsset(Context context, String fileName) throws IOException
+    {
+        AssetFileDescriptor descriptor = context.getAssets().openFd(fileName);
+        try
+        {
+            FileInputStream input = new FileInputStream(descriptor.getFileDescriptor());
+            try
+            {
+                FileChannel channel = input.getChannel();
+                return channel.map(FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength());
+            }
+            finally
+            {
+                input.close();
+            }
+        }
+        finally
+        {
+            descriptor.close();
+        }
+    }
+}
@@ -6,9 +6,25 @@ import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.MotionEvent;
 
-import java.util.ArrayList;
+import com.isb.lunarhex.core.BoardCorpus;
+import com.isb.lunarhex.core.BoardGenerator;
+import com.isb.lunarhex.core.BoardQueue;
+import com.isb.lunarhex.core.BoardState;
+import com.isb.lunarhex.core.BreadthFirstSolver;
+import com.isb.lunarhex.core.CompressedBoard;
+import com.isb.lunarhex.core.DeadEndDetector;
+import com.isb.lunarhex.core.DifficultyFilter;
+import com.isb.lunarhex.core.DifficultyIndex;
+import com.isb.lunarhex.core.DistanceDatabase;
+import com.isb.lunarhex.core.HexShape;
+import com.isb.lunarhex.core.HintCache;
+import com.isb.lunarhex.core.HintWorker;
+import com.isb.lunarhex.core.LongIntMap;
+import com.isb.lunarhex.core.Zobrist;
+
 import java.util.List;
 import java.util.Random;
 
@@ -31,8 +47,15 @@ public class Game implements InteractiveView
     private static final String OPTIONS_TITLE_2 = "SOLVABLE IN";
     private static final String OPTIONS_MAXIMUM = "MAXIMUM MOVES:";
     private static final String OPTIONS_MINIMUM = "MINIMUM MOVES:";
+    private static final String OPTIONS_UNIQUE_ON = "UNIQUE SOLUTION: ON";
+    private static final String OPTIONS_UNIQUE_OFF = "UNIQUE SOLUTION: OFF";
     private static final String CLEAR = "CLEARED!";
+    private static final int HINT_CACHE_CAPACITY = 256;
+    private static final int HINT_PULSE_FRAMES = 20;
     private static final String PERFECT_CLEAR = "PERFECT!";
+    private static final String DEAD_END = "DEAD END! TAP RETRY TO START OVER";
+    private static final String NO_BOARD = "NO BOARD READY YET, TRY AGAIN";
+    private static final String NO_UNIQUE_BOARD = "NO UNIQUE BOARD IN THIS RANGE";
     private static final String INSTRUCTIONS_1 = "SLIDE THE RED PIECE TO THE MIDDLE TO WIN";
     private static final String INSTRUCTIONS_2 = "PIECES MAY ONLY SLIDE INTO OTHER PIECES";
     public static final float HEX_WIDTH_PERCENT = 18f / 100f;
@@ -53,11 +76,12 @@ public class Game implements InteractiveView
     private static final float OPTIONS_PANEL_X_PERCENT = 27f / 100f;
     private static final float OPTIONS_PANEL_Y_PERCENT = 20f / 100f;
     private static final float OPTIONS_PANEL_WIDTH_PERCENT = 46f / 100f;
-    private static final float OPTIONS_PANEL_HEIGHT_PERCENT = 60f / 100f;
+    private static final float OPTIONS_PANEL_HEIGHT_PERCENT = 68f / 100f;
     private static final float OPTIONS_PANEL_TEXT_TITLE_1_Y_PERCENT = 30f / 100f;
     private static final float OPTIONS_PANEL_TEXT_TITLE_2_Y_PERCENT = 38f / 100f;
     private static final float OPTIONS_PANEL_TEXT_MAX_Y_PERCENT = 47f / 100f;
     private static final float OPTIONS_PANEL_TEXT_MIN_Y_PERCENT = 63f / 100f;
+    private static final float OPTIONS_PANEL_TEXT_UNIQUE_Y_PERCENT = 81f / 100f;
     private static final float TEXT_BACKGROUND_PANEL_HEIGHT_PERCENT = 1f / 8f;
     private static int HEX_WIDTH;
     private static int HEX_HEIGHT;
@@ -85,6 +109,9 @@ public class Game implements InteractiveView
     private static int OPTIONS_PANEL_TEXT_MAX_Y;
     private static int OPTIONS_PANEL_TEXT_MIN_X;
     private static int OPTIONS_PANEL_TEXT_MIN_Y;
+    private static int OPTIONS_PANEL_TEXT_UNIQUE_ON_X;
+    private static int OPTIONS_PANEL_TEXT_UNIQUE_OFF_X;
+    private static int OPTIONS_PANEL_TEXT_UNIQUE_Y;
     private static int OPTIONS_PANEL_VALUE_X;
     private static int OPTIONS_PANEL_VALUE_2_DIGIT_X;
     private static int OPTIONS_PANEL_VALUE_MAX_Y;
@@ -97,6 +124,9 @@ public class Game implements InteractiveView
     private static int TEXT_Y;
     private static int CLEAR_X;
     private static int PERFECT_CLEAR_X;
+    private static int DEAD_END_X;
+    private static int NO_BOARD_X;
+    private static int NO_UNIQUE_BOARD_X;
     private static int INSTRUCTIONS_1_X;
     private static int INSTRUCTIONS_2_X;
 
@@ -147,6 +177,11 @@ public class Game implements InteractiveView
      */
     private Rect optionsPanelRect;
 
+    /**
+     * The rectangle containing the coordinates for the unique solution toggle of the options panel
+     */
+    private Rect uniqueSolutionRect;
+
     /**
      * Whether the game is fading in
      */
@@ -178,11 +213,14 @@ public class Game implements InteractiveView
     private List<String> mainBoardSet;
 
     /**
-     * Reference to the list of lists of boards. Each list represents boards of
-     * index + 1 length minimum number of moves to solve. i.e. boardSet[0] is a
-     * list of boards solved in 1 move. boardSet[1] = 2 move solves. etc.
+     * Loads the random boards and their difficulty metrics in the background
+     */
+    private CorpusLoader corpusLoader;
+
+    /**
+     * The difficulty the random boards are filtered on, only applied to the shipped boards
      */
-    private List<List<String>> boardSet;
+    private DifficultyFilter difficultyFilter;
 
     /**
      * The number of frames a slide (move) will take to finish
@@ -241,21 +279,76 @@ public class Game implements InteractiveView
     private Bitmap hexCheck;
 
     /**
-     * String representation of the board with COLOR-INDEX where
+     * Packed representation of the board, see BoardState for the layout where
      * COLOR: R, G, B, Y, O, P
      * INDEX: 0-26
      */
-    public String boardState = "";
+    public long boardState = BoardState.EMPTY;
 
     /**
      * The initial board state prior to changes being made
      */
-    public String initialBoardState = "";
+    public long initialBoardState = BoardState.EMPTY;
+
+    /**
+     * Zobrist hash of the board state, updated incrementally as pieces slide
+     */
+    private long boardHash;
 
     /**
      * The set of states leading to the solution
      */
-    public ArrayList<String> solution;
+    public long[] solution;
+
+    /**
+     * The index of each solution state in the solution keyed by Zobrist hash
+     */
+    private LongIntMap solutionIndices;
+
+    /**
+     * The fewest moves to solve every layout or null if not available
+     */
+    private DistanceDatabase distances;
+
+    /**
+     * Solves boards for hints in the background once the board has left the solution, when the distance database is not available
+     */
+    private HintWorker hintWorker;
+
+    /**
+     * The board state the hint worker is solving
+     */
+    private long hintState;
+
+    /**
+     * The number of frames the hint worker has been solving, used to pulse the hint icon
+     */
+    private int hintFrame;
+
+    /**
+     * Ready generated boards for each number of moves, filled in the background
+     */
+    private BoardQueue boardQueue;
+
+    /**
+     * Tells whether the board can still be solved after each move
+     */
+    private DeadEndDetector deadEndDetector;
+
+    /**
+     * Whether red can no longer reach the middle from the current board state
+     */
+    private boolean deadEnd;
+
+    /**
+     * The message shown when no new board matched the options or null
+     */
+    private String noBoard;
+
+    /**
+     * The best move and moves left of recently hinted board states off the solution
+     */
+    private HintCache hintCache;
 
     /**
      * Whether a piece is currently moving
@@ -285,7 +378,7 @@ public class Game implements InteractiveView
     /**
      * The board state after the slide move is complete
      */
-    private String slideToBoard;
+    private long slideToBoard;
 
     /**
      * The minimum number of moves (shortest path) a newly generated board will take
@@ -297,6 +390,11 @@ public class Game implements InteractiveView
      */
     public int generationMaxMoves = 8;
 
+    /**
+     * Whether new boards are picked among the shipped boards with a single shortest solution
+     */
+    public boolean uniqueSolutionOnly;
+
     /**
      * The name of the button being held down
      */
@@ -338,24 +436,39 @@ public class Game implements InteractiveView
     private boolean cachedPlayerWon = false;
 
     /**
-     * The indices along the paths of the currently selected piece
+     * Whether the board was at a dead end when cached image was stored
      */
-    private List<Integer> moveIndices;
+    private boolean cachedDeadEnd = false;
 
     /**
-     * The indices along the paths of the selected piece when cached image was stored
+     * The no board message when cached image was stored
      */
-    private List<Integer> cachedMoveIndices;
+    private String cachedNoBoard;
 
     /**
-     * The indices at the end of the paths of the currently selected piece
+     * The mask of indices along the paths of the currently selected piece
      */
-    private List<Integer> stopIndices;
+    private int moveIndices;
 
     /**
-     * The indices at the end of the paths of the selected piece when cached image was stored
+     * The mask of indices along the paths of the selected piece when cached image was stored
      */
-    private List<Integer> cachedStopIndices;
+    private int cachedMoveIndices;
+
+    /**
+     * The mask of indices at the end of the paths of the currently selected piece
+     */
+    private int stopIndices;
+
+    /**
+     * The mask of indices at the end of the paths of the selected piece when cached image was stored
+     */
+    private int cachedStopIndices;
+
+    /**
+     * Whether a hint was being solved when cached image was stored
+     */
+    private boolean cachedHintPending;
 
     /**
      * The icon bitmap images to use for drawing the icons
@@ -391,26 +504,35 @@ public class Game implements InteractiveView
      * @param   screenWidth - The screen width
      * @param   screenHeight - The screen height
      * @param   mainBoardSet - The set of main boards
-     * @param   boardSet - The set of random boards
+     * @param   corpusLoader - The loader of the random boards
+     * @param   distances - The fewest moves to solve every layout or null if not available
      * @param   state - The bundle state of the game
      */
-    public Game(MainView main, int screenWidth, int screenHeight, List<String> mainBoardSet, List<List<String>> boardSet, Bundle state)
+    public Game(MainView main, int screenWidth, int screenHeight, List<String> mainBoardSet, CorpusLoader corpusLoader, DistanceDatabase distances, Bundle state)
     {
         this.mainView = main;
         this.mainBoardSet = mainBoardSet;
-        this.boardSet = boardSet;
-
-        solution = new ArrayList<String>();
+        this.corpusLoader = corpusLoader;
+        difficultyFilter = new DifficultyFilter();
+
+        solution = new long[0];
+        solutionIndices = new LongIntMap(32);
+        this.distances = distances;
+        hintWorker = new HintWorker(new BreadthFirstSolver());
+        deadEndDetector = new DeadEndDetector(distances);
+        boardQueue = new BoardQueue(new BoardGenerator(distances, new Random()), BoardQueue.DEFAULT_CAPACITY);
+        hintCache = new HintCache(HINT_CACHE_CAPACITY);
         slideFrame = 0;
         slideStart = -1;
         slideEnd = -1;
         slideDirection = -1;
         moving = false;
 
-        moveIndices = new ArrayList<Integer>();
-        cachedMoveIndices = new ArrayList<Integer>();
-        stopIndices = new ArrayList<Integer>();
-        cachedStopIndices = new ArrayList<Integer>();
+        moveIndices = 0;
+        cachedMoveIndices = 0;
+        stopIndices = 0;
+        cachedStopIndices = 0;
+        cachedHintPending = false;
 
         optionsOpen = false;
         buttonHeldDown = "";
@@ -436,12 +558,17 @@ public class Game implements InteractiveView
                 currentLevel = state.getInt(MainActivity.STATE_LEVEL);
                 currentMove = state.getInt(MainActivity.STATE_MOVES_TAKEN);
                 shortestMoves = state.getInt(MainActivity.STATE_SHORTEST_MOVES);
-                boardState = state.getString(MainActivity.STATE_BOARD);
-                initialBoardState = state.getString(MainActivity.STATE_INITIAL_BOARD);
-                solution = state.getStringArrayList(MainActivity.STATE_SOLUTION);
+                boardState = state.getLong(MainActivity.STATE_BOARD);
+                initialBoardState = state.getLong(MainActivity.STATE_INITIAL_BOARD);
+                solution = state.getLongArray(MainActivity.STATE_SOLUTION);
+                if (solution == null) solution = new long[0];
+                boardHash = Zobrist.hash(boardState);
+                deadEnd = !BoardState.isSolved(boardState) && deadEndDetector.classify(boardState) == DeadEndDetector.DEAD_END;
+                indexSolution();
                 optionsOpen = state.getBoolean(MainActivity.STATE_GAME_OPTIONS_OPEN);
                 generationMaxMoves = state.getInt(MainActivity.STATE_GENERATE_MAX_SOLVE);
                 generationMinMoves = state.getInt(MainActivity.STATE_GENERATE_MIN_SOLVE);
+                setUniqueSolutionOnly(state.getBoolean(MainActivity.STATE_GENERATE_UNIQUE_SOLUTION));
             }
         }
 
@@ -457,6 +584,7 @@ public class Game implements InteractiveView
      */
     public void setSize(int screenWidth, int screenHeight)
     {
+        long start = System.nanoTime();
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
         HEX_WIDTH = Math.round(HEX_WIDTH_PERCENT * screenWidth);
@@ -495,6 +623,12 @@ public class Game implements InteractiveView
         textPaint.getTextBounds(OPTIONS_MINIMUM, 0, OPTIONS_MINIMUM.length(), tempRect);
         OPTIONS_PANEL_TEXT_MIN_X = Math.round(0.5f * screenWidth) - Math.round(tempRect.width() / 2f);
         OPTIONS_PANEL_TEXT_MIN_Y = Math.round(OPTIONS_PANEL_TEXT_MIN_Y_PERCENT * screenHeight);
+        textPaint.getTextBounds(OPTIONS_UNIQUE_ON, 0, OPTIONS_UNIQUE_ON.length(), tempRect);
+        OPTIONS_PANEL_TEXT_UNIQUE_ON_X = Math.round(0.5f * screenWidth) - Math.round(tempRect.width() / 2f);
+        textPaint.getTextBounds(OPTIONS_UNIQUE_OFF, 0, OPTIONS_UNIQUE_OFF.length(), tempRect);
+        OPTIONS_PANEL_TEXT_UNIQUE_OFF_X = Math.round(0.5f * screenWidth) - Math.round(tempRect.width() / 2f);
+        OPTIONS_PANEL_TEXT_UNIQUE_Y = Math.round(OPTIONS_PANEL_TEXT_UNIQUE_Y_PERCENT * screenHeight);
+        int uniqueCenterY = OPTIONS_PANEL_TEXT_UNIQUE_Y - Math.round(tempRect.height() / 2f);
         textPaint.getTextBounds("1", 0, "1".length(), tempRect);
         OPTIONS_PANEL_VALUE_X = MOVES_MINUS_X + (int) ((MOVES_PLUS_X - MOVES_MINUS_X) / 2f) - (int) (tempRect.width() / 2f);
         textPaint.getTextBounds("20", 0, "20".length(), tempRect);
@@ -506,6 +640,12 @@ public class Game implements InteractiveView
         CLEAR_X = (int) ((screenWidth / 2f) - (tempRect.width() / 2f));
         textPaint.getTextBounds(PERFECT_CLEAR, 0, PERFECT_CLEAR.length(), tempRect);
         PERFECT_CLEAR_X = (int) ((screenWidth / 2f) - (tempRect.width() / 2f));
+        textPaint.getTextBounds(DEAD_END, 0, DEAD_END.length(), tempRect);
+        DEAD_END_X = (int) ((screenWidth / 2f) - (tempRect.width() / 2f));
+        textPaint.getTextBounds(NO_BOARD, 0, NO_BOARD.length(), tempRect);
+        NO_BOARD_X = (int) ((screenWidth / 2f) - (tempRect.width() / 2f));
+        textPaint.getTextBounds(NO_UNIQUE_BOARD, 0, NO_UNIQUE_BOARD.length(), tempRect);
+        NO_UNIQUE_BOARD_X = (int) ((screenWidth / 2f) - (tempRect.width() / 2f));
         textPaint.getTextBounds(INSTRUCTIONS_1, 0, INSTRUCTIONS_1.length(), tempRect);
         INSTRUCTIONS_1_X = (int) ((screenWidth / 2f) - (tempRect.width() / 2f));
         textPaint.getTextBounds(INSTRUCTIONS_2, 0, INSTRUCTIONS_2.length(), tempRect);
@@ -517,6 +657,7 @@ public class Game implements InteractiveView
 
         boundingBoxes = Utils.getBoundingBoxes(HEX_WIDTH, HEX_HEIGHT, BOARD_X, BOARD_Y);
         optionsPanelRect = new Rect(OPTIONS_PANEL_X, OPTIONS_PANEL_Y, OPTIONS_PANEL_X + OPTIONS_PANEL_WIDTH, OPTIONS_PANEL_Y + OPTIONS_PANEL_HEIGHT);
+        uniqueSolutionRect = new Rect(OPTIONS_PANEL_X, uniqueCenterY - (BUTTON_RADIUS / 2), OPTIONS_PANEL_X + OPTIONS_PANEL_WIDTH, uniqueCenterY + (BUTTON_RADIUS / 2));
 
         // Construct checking hex to compare taps to when determining which hexagon is selected
         hexCheck = Bitmap.createBitmap(HEX_WIDTH, HEX_HEIGHT, Bitmap.Config.ARGB_8888);
@@ -609,7 +750,7 @@ public class Game implements InteractiveView
         c = new Canvas(cachedGameSceneWithOptionsOpen);
         drawBoardTextAndIcons(c);
         drawHighlight(c);
-        if (!boardState.equals(""))
+        if (boardState != BoardState.EMPTY)
         {
             drawObjectsOnBoard(c);
         }
@@ -618,6 +759,7 @@ public class Game implements InteractiveView
         c.drawText(OPTIONS_TITLE_2, OPTIONS_PANEL_TEXT_TITLE_2_X, OPTIONS_PANEL_TEXT_TITLE_2_Y, textPaint);
         c.drawText(OPTIONS_MAXIMUM, OPTIONS_PANEL_TEXT_MAX_X, OPTIONS_PANEL_TEXT_MAX_Y, textPaint);
         c.drawText(OPTIONS_MINIMUM, OPTIONS_PANEL_TEXT_MIN_X, OPTIONS_PANEL_TEXT_MIN_Y, textPaint);
+        StartupTimer.phase("Game.setSize", start);
     }
 
     /**
@@ -625,7 +767,7 @@ public class Game implements InteractiveView
      */
     private void updateUIVariables()
     {
-        playerWon = Utils.boardSolved(boardState);
+        playerWon = BoardState.isSolved(boardState);
         if (currentLevel != -1)
         {
             generateY = Math.round(2f * screenHeight);
@@ -648,6 +790,7 @@ public class Game implements InteractiveView
      */
     public void newBoardState()
     {
+        hintWorker.cancel();
         if (currentLevel != -1)
         {
             setBoardState(currentLevel);
@@ -670,6 +813,8 @@ public class Game implements InteractiveView
         handleFade();
         handleButtonHeldDown();
         processSlide();
+        processHint();
+        processDeadEnd();
 
         // Draw
         if (optionsOpen)
@@ -787,13 +932,15 @@ public class Game implements InteractiveView
             {
                 moving = false;
                 currentMove++;
+                boardHash = Zobrist.update(boardHash, BoardState.pieceAt(boardState, slideStart), slideStart, slideEnd);
                 boardState = slideToBoard;
-                playerWon = Utils.boardSolved(boardState);
+                playerWon = BoardState.isSolved(boardState);
+                deadEnd = !playerWon && deadEndDetector.classify(boardState) == DeadEndDetector.DEAD_END;
                 if (playerWon && currentLevel != -1)
                 {
                     // Cleared the board, player wins
                     char lastClear = PlayerData.getLevelClearStates().charAt(currentLevel);
-                    boolean perfectClear = currentMove == (solution.size() - 1);
+                    boolean perfectClear = currentMove == (solution.length - 1);
                     if ((lastClear == '0' || lastClear == '2' || perfectClear) && currentLevel != 29)
                     {
                         // Not the final level, transition to the next level unless non-perfectly cleared after the first attempt
@@ -852,21 +999,20 @@ public class Game implements InteractiveView
                         // Select the hexagon if a piece exists on top of it and its not already selected
                         if(hexSelect != foundHex)
                         {
-                            if (Utils.pieceAtIndex(foundHex, boardState))
+                            if (BoardState.pieceAtIndex(boardState, foundHex))
                             {
                                 hexSelect = foundHex;
                                 selectionSetThisTap = true;
-                                List<List<Integer>> pathIndices = Utils.getPathIndices(boardState, hexSelect);
-                                moveIndices = pathIndices.get(0);
-                                stopIndices = pathIndices.get(1);
+                                moveIndices = BoardState.pathMask(boardState, hexSelect);
+                                stopIndices = BoardState.stopMask(boardState, hexSelect);
                             }
                         }
                     }
                     else if (!optionsOpen) // Selecting outside of the board, clear selection
                     {
                         hexSelect = -1;
-                        moveIndices.clear();
-                        stopIndices.clear();
+                        moveIndices = 0;
+                        stopIndices = 0;
                     }
                     else if (optionsOpen) // Start tracking which options button is being held down
                     {
@@ -917,11 +1063,15 @@ public class Game implements InteractiveView
                     else if (!optionsOpen && ((Utils.distanceBetweenPoints(Touch.x, Touch.y, retryX, retryY) < BUTTON_RADIUS) && (Utils.distanceBetweenPoints(Touch.downX, Touch.downY, retryX, retryY) < BUTTON_RADIUS))) // Reset
                     {
                         SoundManager.play(R.raw.tap);
+                        hintWorker.cancel();
                         boardState = initialBoardState;
+                        boardHash = Zobrist.hash(boardState);
+                        deadEnd = false;
+                        noBoard = null;
                         currentMove = 0;
                         hexSelect = -1;
-                        moveIndices.clear();
-                        stopIndices.clear();
+                        moveIndices = 0;
+                        stopIndices = 0;
                     }
                     else if (!optionsOpen && ((Utils.distanceBetweenPoints(Touch.x, Touch.y, hintX, hintY) < BUTTON_RADIUS) && (Utils.distanceBetweenPoints(Touch.downX, Touch.downY, hintX, hintY) < BUTTON_RADIUS))) // Step Hint
                     {
@@ -935,23 +1085,22 @@ public class Game implements InteractiveView
                         }
                         if (enabled)
                         {
-                            int solutionIndex = solution.indexOf(boardState);
+                            int solutionIndex = solutionIndices.get(boardHash, -1);
                             if (solutionIndex == -1) {
-                                boardState = solution.get(0);
-                                currentMove = 0;
-                            } else if (solutionIndex != solution.size() - 1) {
-                                List<Integer> move_index = Utils.getMoveIndices(boardState, solution.get(solutionIndex + 1));
-                                attemptMove(move_index.get(0), move_index.get(1));
+                                requestHint();
+                            } else if (solutionIndex != solution.length - 1) {
+                                hintMove(solution[solutionIndex + 1]);
                             }
                             hexSelect = -1;
-                            moveIndices.clear();
-                            stopIndices.clear();
+                            moveIndices = 0;
+                            stopIndices = 0;
                         }
                     }
                     else if (optionsOpen && ((Utils.distanceBetweenPoints(Touch.x, Touch.y, CLOSE_OPTIONS_X, CLOSE_OPTIONS_Y) < BUTTON_RADIUS) && (Utils.distanceBetweenPoints(Touch.downX, Touch.downY, CLOSE_OPTIONS_X, CLOSE_OPTIONS_Y) < BUTTON_RADIUS))) // Close Board Options
                     {
                         SoundManager.play(R.raw.tap);
                         optionsOpen = false;
+                        boardQueue.setRange(generationMinMoves, generationMaxMoves);
                     }
                     else if (optionsOpen && ((Utils.distanceBetweenPoints(Touch.x, Touch.y, MOVES_MINUS_X, MOVES_MIN_Y) < BUTTON_RADIUS) && (Utils.distanceBetweenPoints(Touch.downX, Touch.downY, MOVES_MINUS_X, MOVES_MIN_Y) < BUTTON_RADIUS))) // Moves min minus
                     {
@@ -1012,24 +1161,31 @@ public class Game implements InteractiveView
                     else if (!optionsOpen && ((Utils.distanceBetweenPoints(Touch.x, Touch.y, EXIT_X, EXIT_Y) < BUTTON_RADIUS) && (Utils.distanceBetweenPoints(Touch.downX, Touch.downY, EXIT_X, EXIT_Y) < BUTTON_RADIUS))) // Exit game
                     {
                         SoundManager.play(R.raw.tap);
+                        hintWorker.cancel();
                         fadingOut = true;
                         fadeFrame = MainView.TRANSITION_FRAMES;
                     }
+                    else if (optionsOpen && (uniqueSolutionRect.contains(Touch.x, Touch.y) && uniqueSolutionRect.contains(Touch.downX, Touch.downY))) // Unique solution toggle
+                    {
+                        SoundManager.play(R.raw.tap);
+                        setUniqueSolutionOnly(!uniqueSolutionOnly);
+                    }
                     else if (optionsOpen && (!optionsPanelRect.contains(Touch.x, Touch.y) && !optionsPanelRect.contains(Touch.downX, Touch.downY))) // Touching outside options panel
                     {
                         optionsOpen = false;
+                        boardQueue.setRange(generationMinMoves, generationMaxMoves);
                     }
                     else if (!optionsOpen && foundHex != -1) // Attempt to move selected hexagon to hexagon at the release point of the touch
                     {
-                        if (moveIndices.indexOf(foundHex) != -1)
+                        if ((moveIndices & (1 << foundHex)) != 0)
                         {
                             // Released touch on the path, attempt to move to the end of the path
                             int pathDir = Utils.getMoveDirection(hexSelect, foundHex);
-                            for (int i = 0; i < stopIndices.size(); i++)
+                            for (int i = 0; i < BoardState.CELLS; i++)
                             {
-                                if (Utils.getMoveDirection(hexSelect, stopIndices.get(i)) == pathDir)
+                                if ((stopIndices & (1 << i)) != 0 && Utils.getMoveDirection(hexSelect, i) == pathDir)
                                 {
-                                    attemptMove(hexSelect, stopIndices.get(i));
+                                    attemptMove(hexSelect, i);
                                     break;
                                 }
                             }
@@ -1041,13 +1197,13 @@ public class Game implements InteractiveView
                         if (moving || !selectionSetThisTap)
                         {
                             hexSelect = -1;
-                            moveIndices.clear();
-                            stopIndices.clear();
+                            moveIndices = 0;
+                            stopIndices = 0;
                         }
                     }
                     selectionSetThisTap = false;
                     tapping = false;
-                    playerWon = Utils.boardSolved(boardState);
+                    playerWon = BoardState.isSolved(boardState);
                     break;
                 case MotionEvent.ACTION_MOVE:
                     // Check for touchs moving off a held button
@@ -1099,38 +1255,17 @@ public class Game implements InteractiveView
      */
     private void attemptMove(int start, int end)
     {
-        String newBoard = "";
-        String[] pairs = boardState.split(",");
-        String color;
-        String index;
-        String movingColor = "";
-        for (int i = 0; i < pairs.length; i++)
-        {
-            color = pairs[i].split("-")[0];
-            index = pairs[i].split("-")[1];
-            if (Integer.parseInt(index) == start)
-            {
-                index = String.valueOf(end);
-                movingColor = color;
-            }
-            if (i > 0) newBoard += ",";
-            newBoard += color + "-" + index;
-        }
-        if (!newBoard.equals(boardState))
+        int piece = BoardState.pieceAt(boardState, start);
+        if (piece != -1 && start != end)
         {
             int dir = Utils.getMoveDirection(start, end);
             if (dir != -1) {
-                int encodedMove = dir;
-                if (movingColor.equals("R")) encodedMove += 0;
-                else if (movingColor.equals("G")) encodedMove += 6;
-                else if (movingColor.equals("B")) encodedMove += 12;
-                else if (movingColor.equals("Y")) encodedMove += 18;
-                else if (movingColor.equals("O")) encodedMove += 24;
-                else if (movingColor.equals("P")) encodedMove += 30;
-                else return;
-                if (Utils.getBoardAfterMove(boardState, encodedMove).equals(newBoard))
+                int encodedMove = (piece * 6) + dir;
+                long newBoard = BoardState.afterMove(boardState, encodedMove);
+                if (newBoard != BoardState.INVALID && BoardState.position(newBoard, piece) == end)
                 {
                     SoundManager.play(R.raw.slide);
+                    hintWorker.cancel();
                     slideStart = start;
                     slideEnd = end;
                     slideFrame = SLIDE_FRAMES;
@@ -1150,47 +1285,154 @@ public class Game implements InteractiveView
     private void setBoardState(int level)
     {
         parseSolution(mainBoardSet.get(level));
-        boardState = Utils.convertCompressedBoard(mainBoardSet.get(level));
+        boardState = solution[0];
+        boardHash = Zobrist.hash(boardState);
+        deadEnd = false;
+        noBoard = null;
         currentMove = 0;
         hexSelect = -1;
-        moveIndices.clear();
-        stopIndices.clear();
+        moveIndices = 0;
+        stopIndices = 0;
         initialBoardState = boardState;
     }
 
     /**
-     * Randomly generates a board state.
+     * Sets whether new boards must have a single shortest solution. While set
+     * the boards are picked from the shipped boards filtered on their number of
+     * solutions, as only those are graded, and from the board queue, which then
+     * only generates boards with a unique solution, when no shipped board in
+     * range has one.
+     *
+     * @param   uniqueSolutionOnly - Whether new boards must have a unique solution
+     */
+    private void setUniqueSolutionOnly(boolean uniqueSolutionOnly)
+    {
+        this.uniqueSolutionOnly = uniqueSolutionOnly;
+        difficultyFilter = new DifficultyFilter();
+        if (uniqueSolutionOnly) difficultyFilter.solutions(1, 1);
+        boardQueue.setUniqueSolution(uniqueSolutionOnly);
+    }
+
+    /**
+     * Randomly generates a board state, taken from the board queue when one is
+     * ready, otherwise picked from the shipped boards so a new board never waits
+     * on the generator. Boards are picked from the shipped boards when
+     * filtering on difficulty. The shipped boards never repeat a main board,
+     * as repeats are dropped when the corpus is built. When no board in range
+     * can be found the board is left unchanged and the player is told instead,
+     * so boards outside the range or with several solutions are never taken.
      *
      * @param	low - The lowest number of moves acceptable
      * @param	high - The highest number of moves acceptable
      */
     private void randomBoardState(int low, int high)
     {
-        int totalApplicableBoards = 0;
-        int i;
-        for (i = low - 1; i < high; i++) totalApplicableBoards += boardSet.get(i).size();
-        Random rand = new Random();
-        int randomApplicableBoard = rand.nextInt(totalApplicableBoards);
-        int sum = 0;
-        int index = boardSet.size() - 1;
-        for (i = low - 1; i < high; i++)
+        long[] states = pickRandomBoard(low, high);
+        if (states == null)
         {
-            sum += boardSet.get(i).size();
-            if (sum > randomApplicableBoard)
-            {
-                index = i;
-                break;
-            }
+            noBoard = (uniqueSolutionOnly && boardQueue.isExhausted(low, high)) ? NO_UNIQUE_BOARD : NO_BOARD;
+            return;
         }
-        parseSolution(boardSet.get(index).get(randomApplicableBoard - (sum - boardSet.get(index).size())));
-        boardState = Utils.convertCompressedBoard(boardSet.get(index).get(randomApplicableBoard - (sum - boardSet.get(index).size())));
+        setSolution(states);
+        boardState = solution[0];
+        boardHash = Zobrist.hash(boardState);
+        deadEnd = false;
+        noBoard = null;
         currentMove = 0;
         hexSelect = -1;
-        moveIndices.clear();
-        stopIndices.clear();
+        moveIndices = 0;
+        stopIndices = 0;
         initialBoardState = boardState;
     }
 
+    /**
+     * Picks a random board from the shipped boards when filtering on difficulty,
+     * otherwise from the board queue or the shipped boards in turn. The board
+     * queue holds only boards the filter on solutions accepts, and no unfiltered
+     * shipped board is picked while filtering.
+     *
+     * @param	low - The lowest number of moves acceptable
+     * @param	high - The highest number of moves acceptable
+     * @return	The board states from the picked board to the solved board or null if none is found
+     */
+    private long[] pickRandomBoard(int low, int high)
+    {
+        if (!difficultyFilter.acceptsAll())
+        {
+            long[] shipped = randomShippedBoard(low, high, difficultyFilter);
+            if (shipped != null) return shipped;
+        }
+        String generated = boardQueue.poll(low, high);
+        if (generated != null) return CompressedBoard.solution(generated);
+        if (!difficultyFilter.acceptsAll()) return null;
+        return randomShippedBoard(low, high, null);
+    }
+
+    /**
+     * Randomly picks one of the shipped boards, only decoding the picked board.
+     * Without a filter the board is one random draw into the boards in range,
+     * with one the difficulty of each board in range is looked up in the index.
+     * None is picked until the shipped boards have finished loading.
+     *
+     * @param	low - The lowest number of moves acceptable
+     * @param	high - The highest number of moves acceptable
+     * @param	filter - The difficulty filter or null to accept every board
+     * @return	The board states from the picked board to the solved board or null if none is accepted
+     */
+    private long[] randomShippedBoard(int low, int high, DifficultyFilter filter)
+    {
+        BoardCorpus corpus = corpusLoader.corpus();
+        if (corpus == null) return null;
+        DifficultyIndex difficulty = corpusLoader.difficulty();
+        if (filter != null && difficulty == null) return null;
+        // The boards are ordered by moves, so the boards in range are contiguous
+        int first = corpus.first(low);
+        int end = corpus.first(high + 1);
+        int totalApplicableBoards = countAccepted(difficulty, first, end, filter);
+        if (totalApplicableBoards == 0) return null;
+        Random rand = new Random();
+        int randomApplicableBoard = rand.nextInt(totalApplicableBoards);
+        if (filter == null) return corpus.solution(first + randomApplicableBoard);
+        for (int i = first; i < end; i++)
+        {
+            if (accepted(difficulty, i, filter) && randomApplicableBoard-- == 0) return corpus.solution(i);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of shipped boards of the range accepted by the filter.
+     *
+     * @param	difficulty - The difficulty metrics of the shipped boards
+     * @param	first - The index of the first board of the range
+     * @param	end - The index of the board after the range
+     * @param	filter - The difficulty filter or null to accept every board
+     * @return	The number of accepted boards
+     */
+    private int countAccepted(DifficultyIndex difficulty, int first, int end, DifficultyFilter filter)
+    {
+        if (filter == null) return end - first;
+        int count = 0;
+        for (int i = first; i < end; i++)
+        {
+            if (accepted(difficulty, i, filter)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the shipped board is accepted by the filter.
+     *
+     * @param	difficulty - The difficulty metrics of the shipped boards
+     * @param	board - The index of the board in the corpus
+     * @param	filter - The difficulty filter or null to accept every board
+     * @return	Whether the board is accepted
+     */
+    private boolean accepted(DifficultyIndex difficulty, int board, DifficultyFilter filter)
+    {
+        return filter == null || filter.accepts(difficulty, board);
+    }
+
     /**
      * Parses the compressed format board to set the solution for the board.
      *
@@ -1198,21 +1440,178 @@ public class Game implements InteractiveView
      */
     private void parseSolution(String compressedBoard)
     {
-        shortestMoves = Integer.parseInt(String.valueOf(compressedBoard.charAt(0)), 36);
-        List<Integer> encodedMoves = new ArrayList<Integer>();
-        int i;
-        for (i = 1; i <= shortestMoves; i++)
+        setSolution(CompressedBoard.solution(compressedBoard));
+    }
+
+    /**
+     * Sets the solution for the board.
+     *
+     * @param	states - The board states from the start to the solved board
+     */
+    private void setSolution(long[] states)
+    {
+        solution = states;
+        shortestMoves = solution.length - 1;
+        indexSolution();
+    }
+
+    /**
+     * Indexes the solution states by Zobrist hash for constant time lookups.
+     */
+    private void indexSolution()
+    {
+        solutionIndices.clear();
+        if (solution.length == 0) return;
+        long hash = Zobrist.hash(solution[0]);
+        solutionIndices.put(hash, 0);
+        for (int i = 1; i < solution.length; i++)
+        {
+            int piece = BoardState.movedPiece(solution[i - 1], solution[i]);
+            hash = Zobrist.update(hash, piece, BoardState.position(solution[i - 1], piece), BoardState.position(solution[i], piece));
+            solutionIndices.put(hash, i);
+        }
+    }
+
+    /**
+     * Makes the hint move off the solution. Recently hinted board states are
+     * answered from the hint cache, otherwise the distance database is used when
+     * available or the board is handed to the hint worker and the move is made
+     * once it is solved.
+     */
+    private void requestHint()
+    {
+        int hint = hintCache.get(boardState);
+        if (hint == HintCache.MISS && distances != null)
+        {
+            int distance = distances.distanceOf(boardState);
+            if (distance != DistanceDatabase.UNKNOWN)
+            {
+                hint = HintCache.hint(distances.bestMove(boardState), distance);
+                hintCache.put(boardState, hint);
+            }
+        }
+        if (hint != HintCache.MISS)
+        {
+            applyHint(hint);
+        }
+        else if (!hintWorker.isBusy() || hintState != boardState)
+        {
+            hintState = boardState;
+            hintFrame = 0;
+            hintWorker.submit(boardState);
+        }
+    }
+
+    /**
+     * Makes the hint move once the hint worker has solved the board.
+     */
+    private void processHint()
+    {
+        if (hintWorker.isBusy())
         {
-            encodedMoves.add(Integer.parseInt(String.valueOf(compressedBoard.charAt(i)), 36));
+            hintFrame++;
+            long[] path = hintWorker.poll();
+            if (path != null && hintState == boardState && !moving)
+            {
+                applyHint(cacheHintPath(path));
+            }
         }
-        String next = Utils.convertCompressedBoard(compressedBoard);
-        solution.clear();
-        solution.add(next);
-        for (i = 0; i < encodedMoves.size(); i++)
+    }
+
+    /**
+     * Shows the dead end banner once the background search finds the board can
+     * no longer be solved.
+     */
+    private void processDeadEnd()
+    {
+        if (deadEndDetector.poll(boardState) == DeadEndDetector.DEAD_END) deadEnd = true;
+    }
+
+    /**
+     * Caches the hint of every board state along the solved path.
+     *
+     * @param   path - The shortest path from the board state solved or HintWorker.UNSOLVABLE
+     * @return  The packed hint of the board state solved
+     */
+    private int cacheHintPath(long[] path)
+    {
+        if (path == HintWorker.UNSOLVABLE)
+        {
+            int hint = HintCache.hint(HintCache.NO_MOVE, HintCache.UNSOLVABLE);
+            hintCache.put(hintState, hint);
+            return hint;
+        }
+        // The rest of the path is cached too so following the hints never solves again
+        int hint = HintCache.hint(HintCache.NO_MOVE, 0);
+        for (int i = path.length - 1; i >= 0; i--)
         {
-            next = Utils.getBoardAfterMove(next, encodedMoves.get(i));
-            solution.add(next);
+            hintCache.put(path[i], hint);
+            if (i > 0) hint = HintCache.hint(BoardState.moveBetween(path[i - 1], path[i]), path.length - i);
         }
+        return hint;
+    }
+
+    /**
+     * Makes the move of the hint for the current board state, or returns to the
+     * start of the solution if the board can no longer be solved.
+     *
+     * @param   hint - The packed hint
+     */
+    private void applyHint(int hint)
+    {
+        int distance = HintCache.distance(hint);
+        if (distance == HintCache.UNSOLVABLE)
+        {
+            boardState = initialBoardState;
+            boardHash = Zobrist.hash(boardState);
+            deadEnd = false;
+            currentMove = 0;
+        }
+        else if (distance != 0)
+        {
+            hintMove(BoardState.afterMove(boardState, HintCache.move(hint)));
+        }
+    }
+
+    /**
+     * Slides the piece that differs from the next board state.
+     *
+     * @param   next - The board state one move later
+     */
+    private void hintMove(long next)
+    {
+        int piece = BoardState.movedPiece(boardState, next);
+        attemptMove(BoardState.position(boardState, piece), BoardState.position(next, piece));
+    }
+
+    /**
+     * Cancels the hint being solved and stops filling the board queue, when the game is paused.
+     */
+    public void pause()
+    {
+        hintWorker.cancel();
+        boardQueue.stop();
+    }
+
+    /**
+     * Resumes filling the board queue for the selected range of moves.
+     */
+    public void resume()
+    {
+        boardQueue.setRange(generationMinMoves, generationMaxMoves);
+        boardQueue.start();
+    }
+
+    /**
+     * Stops the background threads of the game, when the game is discarded, and
+     * logs how often hints were found in the hint cache.
+     */
+    public void destroy()
+    {
+        boardQueue.stop();
+        hintWorker.shutdown();
+        deadEndDetector.shutdown();
+        Log.d("LunarHex", "Hint cache hits: " + hintCache.hits() + " misses: " + hintCache.misses());
     }
 
     /**
@@ -1246,26 +1645,23 @@ public class Game implements InteractiveView
         if (fadingIn || fadingOut) changed = true;
         if (cachedHexSelect != hexSelect) changed = true;
         if (cachedPlayerWon != playerWon) changed = true;
+        if (cachedDeadEnd != deadEnd) changed = true;
+        if (cachedNoBoard != noBoard) changed = true;
         if (cachedLevel != currentLevel) changed = true;
-        if (!cachedMoveIndices.equals(moveIndices)) changed = true;
-        if (!cachedStopIndices.equals(stopIndices)) changed = true;
+        if (cachedMoveIndices != moveIndices) changed = true;
+        if (cachedStopIndices != stopIndices) changed = true;
+        if (hintWorker.isBusy() || cachedHintPending) changed = true;
         if (changed)
         {
             // Store new cached variables for current state
             cachedHexSelect = hexSelect;
             cachedPlayerWon = playerWon;
+            cachedDeadEnd = deadEnd;
+            cachedNoBoard = noBoard;
             cachedLevel = currentLevel;
-            cachedMoveIndices.clear();
-            cachedStopIndices.clear();
-            int i;
-            for(i = 0; i < moveIndices.size(); i++)
-            {
-                cachedMoveIndices.add(moveIndices.get(i));
-            }
-            for(i = 0; i < stopIndices.size(); i++)
-            {
-                cachedStopIndices.add(stopIndices.get(i));
-            }
+            cachedMoveIndices = moveIndices;
+            cachedStopIndices = stopIndices;
+            cachedHintPending = hintWorker.isBusy();
         }
         return changed;
     }
@@ -1302,43 +1698,34 @@ public class Game implements InteractiveView
             float height = HEX_HEIGHT;
             float startX = BOARD_X;
             float startY = BOARD_Y;
-            float x = startX + (width * 0.75f);
-            float y = startY;
-            int index = 1;
-            for (int y_index = 0; y_index < 11; y_index++)
+            HexShape shape = HexShape.LUNAR;
+            for (int i = 0; i < shape.cells(); i++)
             {
-                for (int x_index = 0; x_index < 3; x_index++)
-                {
-                    if ((y_index % 2 == 0) && x_index == 2) break;
-                    if (hexSelect == index) cachedCanvas.drawBitmap(hexBoardYellowBitmap, x, y, null);
-                    else if (stopIndices.indexOf(index) != -1) cachedCanvas.drawBitmap(hexBoardDarkGreyBitmap, x, y, null);
-                    else if (moveIndices.indexOf(index) != -1) cachedCanvas.drawBitmap(hexBoardLightGreyBitmap, x, y, null);
-                    else if (index == 12) cachedCanvas.drawBitmap(hexBoardRedBitmap, x, y, null);
-                    else cachedCanvas.drawBitmap(hexBoardWhiteBitmap, x, y, null);
-                    x += (placementWidth * 1.5);
-                    if (index == 25) index++;
-                    else index += 2;
-                }
-                if (y_index % 2 == 0)
-                {
-                    x = startX;
-                    index -= 5;
-                }
-                else
-                {
-                    x = startX + (placementWidth * 0.75f);
-                    if (index == 26) index = 25;
-                }
-                y += (height * 0.5);
+                int index = shape.drawOrder(i);
+                int column = shape.column(index);
+                // Hexagons overlap by a quarter of their width and odd columns are raised by half a hexagon
+                float x = startX + (column * placementWidth * 0.75f);
+                float y = startY + (shape.row(index) * height) + ((column % 2 == 0) ? height * 0.5f : 0);
+                if (hexSelect == index) cachedCanvas.drawBitmap(hexBoardYellowBitmap, x, y, null);
+                else if ((stopIndices & (1 << index)) != 0) cachedCanvas.drawBitmap(hexBoardDarkGreyBitmap, x, y, null);
+                else if ((moveIndices & (1 << index)) != 0) cachedCanvas.drawBitmap(hexBoardLightGreyBitmap, x, y, null);
+                else if (index == BoardState.CENTER) cachedCanvas.drawBitmap(hexBoardRedBitmap, x, y, null);
+                else cachedCanvas.drawBitmap(hexBoardWhiteBitmap, x, y, null);
             }
 
             // Draw icons and text
             String textToDraw = "";
             int textX = 0;
             boolean textVisible = false;
-            if (playerWon)
+            if (noBoard != null)
             {
-                if (currentMove == (solution.size() - 1))
+                textToDraw = noBoard;
+                textX = (noBoard == NO_UNIQUE_BOARD) ? NO_UNIQUE_BOARD_X : NO_BOARD_X;
+                textVisible = true;
+            }
+            else if (playerWon)
+            {
+                if (currentMove == (solution.length - 1))
                 {
                     textToDraw = PERFECT_CLEAR;
                     textX = PERFECT_CLEAR_X;
@@ -1351,6 +1738,12 @@ public class Game implements InteractiveView
                     textVisible = true;
                 }
             }
+            else if (deadEnd)
+            {
+                textToDraw = DEAD_END;
+                textX = DEAD_END_X;
+                textVisible = true;
+            }
             else
             {
                 if (currentLevel == 0)
@@ -1411,23 +1804,19 @@ public class Game implements InteractiveView
         {
             if (tapping)
             {
-                if (moveIndices.indexOf(cursorOverHex) != -1 || stopIndices.indexOf(cursorOverHex) != -1)
+                if (((moveIndices | stopIndices) & (1 << cursorOverHex)) != 0)
                 {
                     // Highlight the path the mouse is currently over
                     int dir = Utils.getMoveDirection(hexSelect, cursorOverHex);
-                    int i;
-                    for (i = 0; i < moveIndices.size(); i++)
+                    for (int i = 0; i < BoardState.CELLS; i++)
                     {
-                        if (Utils.getMoveDirection(hexSelect, moveIndices.get(i)) == dir)
+                        if ((moveIndices & (1 << i)) != 0 && Utils.getMoveDirection(hexSelect, i) == dir)
                         {
-                            canvas.drawBitmap(hexBoardHighlightYellowBitmap, boundingBoxes.get(moveIndices.get(i)).left, boundingBoxes.get(moveIndices.get(i)).top, null);
+                            canvas.drawBitmap(hexBoardHighlightYellowBitmap, boundingBoxes.get(i).left, boundingBoxes.get(i).top, null);
                         }
-                    }
-                    for (i = 0; i < stopIndices.size(); i++)
-                    {
-                        if (Utils.getMoveDirection(hexSelect, stopIndices.get(i)) == dir)
+                        else if ((stopIndices & (1 << i)) != 0 && Utils.getMoveDirection(hexSelect, i) == dir)
                         {
-                            canvas.drawBitmap(hexBoardHighlightOrangeBitmap, boundingBoxes.get(stopIndices.get(i)).left, boundingBoxes.get(stopIndices.get(i)).top, null);
+                            canvas.drawBitmap(hexBoardHighlightOrangeBitmap, boundingBoxes.get(i).left, boundingBoxes.get(i).top, null);
                         }
                     }
                 }
@@ -1442,31 +1831,28 @@ public class Game implements InteractiveView
      */
     private void drawObjectsOnBoard(Canvas canvas)
     {
-        String[] pairs = boardState.split(",");
-        for (int i = 0; i < pairs.length; i++)
+        for (int i = 0; i < BoardState.pieceCount(boardState); i++)
         {
-            Character color = pairs[i].split("-")[0].charAt(0);
-            String index = pairs[i].split("-")[1];
-            int intIndex = Integer.parseInt(index);
+            int intIndex = BoardState.position(boardState, i);
             Bitmap colorHex;
-            switch (color)
+            switch (i)
             {
-                case 'R':
+                case 0:
                     colorHex = hexRedBitmap;
                     break;
-                case 'G':
+                case 1:
                     colorHex = hexGreenBitmap;
                     break;
-                case 'B':
+                case 2:
                     colorHex = hexBlueBitmap;
                     break;
-                case 'Y':
+                case 3:
                     colorHex = hexYellowBitmap;
                     break;
-                case 'O':
+                case 4:
                     colorHex = hexOrangeBitmap;
                     break;
-                case 'P':
+                case 5:
                     colorHex = hexPurpleBitmap;
                     break;
                 default:
@@ -1584,6 +1970,14 @@ public class Game implements InteractiveView
         {
             canvas.drawText(String.valueOf(generationMinMoves), OPTIONS_PANEL_VALUE_X, OPTIONS_PANEL_VALUE_MIN_Y, textPaint);
         }
+        if (uniqueSolutionOnly)
+        {
+            canvas.drawText(OPTIONS_UNIQUE_ON, OPTIONS_PANEL_TEXT_UNIQUE_ON_X, OPTIONS_PANEL_TEXT_UNIQUE_Y, textPaint);
+        }
+        else
+        {
+            canvas.drawText(OPTIONS_UNIQUE_OFF, OPTIONS_PANEL_TEXT_UNIQUE_OFF_X, OPTIONS_PANEL_TEXT_UNIQUE_Y, textPaint);
+        }
     }
 
     /**
@@ -1599,7 +1993,7 @@ public class Game implements InteractiveView
             canvas.drawBitmap(iconRetryBitmap, retryX - BUTTON_RADIUS, retryY - BUTTON_RADIUS, iconPaint);
             if (perfectClear)
             {
-                canvas.drawBitmap(iconHintBitmap, hintX - BUTTON_RADIUS, hintY - BUTTON_RADIUS, iconPaint);
+                drawHintIcon(canvas);
             }
         }
         else
@@ -1608,8 +2002,26 @@ public class Game implements InteractiveView
             canvas.drawBitmap(iconNewBitmap, generateX - BUTTON_RADIUS, generateY - BUTTON_RADIUS, iconPaint);
             canvas.drawBitmap(iconOptionsBitmap, generateOptionsX - BUTTON_RADIUS, generateOptionsY - BUTTON_RADIUS, iconPaint);
             canvas.drawBitmap(iconRetryBitmap, retryX - BUTTON_RADIUS, retryY - BUTTON_RADIUS, iconPaint);
-            canvas.drawBitmap(iconHintBitmap, hintX - BUTTON_RADIUS, hintY - BUTTON_RADIUS, iconPaint);
+            drawHintIcon(canvas);
+        }
+    }
+
+    /**
+     * Draws the hint icon, pulsing while the hint worker is solving.
+     *
+     * @param   canvas - The canvas to draw on
+     */
+    private void drawHintIcon(Canvas canvas)
+    {
+        int alpha = iconPaint.getAlpha();
+        if (hintWorker.isBusy())
+        {
+            // Fade between full and quarter opacity and back every pulse
+            int phase = Math.abs((hintFrame % (2 * HINT_PULSE_FRAMES)) - HINT_PULSE_FRAMES);
+            iconPaint.setAlpha((alpha * (64 + ((191 * phase) / HINT_PULSE_FRAMES))) / 255);
         }
+        canvas.drawBitmap(iconHintBitmap, hintX - BUTTON_RADIUS, hintY - BUTTON_RADIUS, iconPaint);
+        iconPaint.setAlpha(alpha);
     }
 
     /**
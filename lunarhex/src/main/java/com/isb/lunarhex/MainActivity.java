@@ -24,6 +24,7 @@ public class MainActivity extends Activity
     public static final String STATE_GAME_OPTIONS_OPEN = "gameOptionsOpen";
     public static final String STATE_GENERATE_MAX_SOLVE = "generateMaxSolve";
     public static final String STATE_GENERATE_MIN_SOLVE = "generateMinSolve";
+    public static final String STATE_GENERATE_UNIQUE_SOLUTION = "generateUniqueSolution";
 
     /**
      * The view of the game.
@@ -72,12 +73,13 @@ public class MainActivity extends Activity
             outState.putInt(STATE_LEVEL, mainView.game.currentLevel);
             outState.putInt(STATE_MOVES_TAKEN, mainView.game.currentMove);
             outState.putInt(STATE_SHORTEST_MOVES, mainView.game.shortestMoves);
-            outState.putString(STATE_BOARD, mainView.game.boardState);
-            outState.putString(STATE_INITIAL_BOARD, mainView.game.initialBoardState);
-            outState.putStringArrayList(STATE_SOLUTION, mainView.game.solution);
+            outState.putLong(STATE_BOARD, mainView.game.boardState);
+            outState.putLong(STATE_INITIAL_BOARD, mainView.game.initialBoardState);
+            outState.putLongArray(STATE_SOLUTION, mainView.game.solution);
             outState.putBoolean(STATE_GAME_OPTIONS_OPEN, mainView.game.optionsOpen);
             outState.putInt(STATE_GENERATE_MAX_SOLVE, mainView.game.generationMaxMoves);
             outState.putInt(STATE_GENERATE_MIN_SOLVE, mainView.game.generationMinMoves);
+            outState.putBoolean(STATE_GENERATE_UNIQUE_SOLUTION, mainView.game.uniqueSolutionOnly);
         }
         else
         {
@@ -114,6 +116,17 @@ public class MainActivity extends Activity
         SoundManager.stopMusic();
     }
 
+    /**
+     * Called as part of the activity lifecycle when the activity is being destroyed,
+     * the counterpart to onCreate.
+     */
+    @Override
+    protected void onDestroy()
+    {
+        mainView.destroy();
+        super.onDestroy();
+    }
+
     /**
      * Implement this method to handle touch screen motion events.
      *
@@ -12,6 +12,8 @@ import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
+import com.isb.lunarhex.core.DistanceDatabase;
+
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -92,11 +94,14 @@ public class MainView extends SurfaceView implements Runnable
     private List<String> mainBoardSet;
 
     /**
-     * Reference to the list of lists of boards. Each list represents boards of
-     * index + 1 length minimum number of moves to solve. i.e. boardSet[0] is a
-     * list of boards solved in 1 move. boardSet[1] = 2 move solves. etc.
+     * Loads the random boards and their difficulty metrics in the background
+     */
+    private CorpusLoader corpusLoader;
+
+    /**
+     * The fewest moves to solve every layout, null if the database could not be mapped
      */
-    private List<List<String>> boardSet;
+    private DistanceDatabase distances;
 
     /**
      * Constructor for the game canvas.
@@ -106,18 +111,22 @@ public class MainView extends SurfaceView implements Runnable
     public MainView(Context context, AttributeSet attrs)
     {
         super(context, attrs);
+        StartupTimer.start();
         MS_PER_CYCLE = 1000 / FRAME_RATE;
         holder = getHolder();
         totalFrames = 0;
 
         // Set up fonts
+        long start = System.nanoTime();
         FONT_SIZE_20_SP = getContext().getResources().getDimensionPixelSize(R.dimen.font_size_20);
         FONT_SIZE_30_SP = getContext().getResources().getDimensionPixelSize(R.dimen.font_size_30);
         FONT_SIZE_60_SP = getContext().getResources().getDimensionPixelSize(R.dimen.font_size_60);
         LATO_HEAVY_FONT = Typeface.createFromAsset(context.getAssets(), "fonts/Lato-Heavy.ttf");
         LATO_FONT = Typeface.createFromAsset(context.getAssets(), "fonts/Lato-Regular.ttf");
+        StartupTimer.phase("fonts", start);
 
         loadBoardSets(context);
+        loadDistanceDatabase(context);
     }
 
     /**
@@ -135,8 +144,12 @@ public class MainView extends SurfaceView implements Runnable
 
         generateBackground(SCREEN_WIDTH, SCREEN_HEIGHT);
 
-        // Setup Game and Menu
-        game = new Game(this, SCREEN_WIDTH, SCREEN_HEIGHT, mainBoardSet, boardSet, state);
+        // Map the random boards in the background while the first frames are drawn
+        corpusLoader.request();
+
+        // Setup Game and Menu, stopping the threads of any game being replaced
+        if (game != null) game.destroy();
+        game = new Game(this, SCREEN_WIDTH, SCREEN_HEIGHT, mainBoardSet, corpusLoader, distances, state);
         menu = new Menu(this, SCREEN_WIDTH, SCREEN_HEIGHT, mainBoardSet, state);
         menu.newPlayer = PlayerData.getNewPlayerStatus();
 
@@ -168,19 +181,13 @@ public class MainView extends SurfaceView implements Runnable
      */
     private void loadBoardSets(Context context)
     {
+        long start = System.nanoTime();
         mainBoardSet = new ArrayList<String>();
-        boardSet = new ArrayList<List<String>>();
-        for (int i = 0; i < 20; i++)
-        {
-            List<String> moveSet = new ArrayList<String>();
-            boardSet.add(moveSet);
-        }
 
-        // Fetch the boards from the raw resources and store them
+        // Fetch the main boards from the raw resources and store them
         try
         {
             BufferedReader inputMainBoards = new BufferedReader(new InputStreamReader(context.getResources().openRawResource(R.raw.boards_main)));
-            BufferedReader inputSmallSetBoards = new BufferedReader(new InputStreamReader(context.getResources().openRawResource(R.raw.boards_small)));
             try
             {
                 String mainBoardString = inputMainBoards.readLine();
@@ -189,16 +196,6 @@ public class MainView extends SurfaceView implements Runnable
                 {
                     mainBoardSet.add(mainBoards[i]);
                 }
-                String smallBoardString = inputSmallSetBoards.readLine();
-                String[] smallBoards = smallBoardString.split(",");
-                for (int i = 0; i < smallBoards.length; i++)
-                {
-                    if (mainBoardSet.indexOf(smallBoards[i]) == -1)
-                    {
-                        int solveMoves = Integer.parseInt(String.valueOf(smallBoards[i].charAt(0)), 36);
-                        boardSet.get(solveMoves - 1).add(smallBoards[i]);
-                    }
-                }
             }
             finally
             {
@@ -213,6 +210,34 @@ public class MainView extends SurfaceView implements Runnable
         {
             Log.e("LunarHex", "Error reading file: " + e);
         }
+
+        StartupTimer.phase("main boards", start);
+
+        // The random boards are mapped in the background once initialized
+        corpusLoader = new CorpusLoader(context);
+    }
+
+    /**
+     * Memory maps the distance database from the uncompressed assets, read only.
+     *
+     * @param   context - The context
+     */
+    private void loadDistanceDatabase(Context context)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            distances = new DistanceDatabase(CorpusLoader.mapAsset(context, DistanceDatabase.FILE_NAME));
+        }
+        catch (IOException e)
+        {
+            Log.e("LunarHex", "Error mapping distance database: " + e);
+        }
+        catch (IllegalArgumentException e)
+        {
+            Log.e("LunarHex", "Error reading distance database: " + e);
+        }
+        StartupTimer.phase("distance database", start);
     }
 
     /**
@@ -221,6 +246,7 @@ public class MainView extends SurfaceView implements Runnable
     public void resume()
     {
         running = true;
+        game.resume();
         startTime = System.currentTimeMillis();
         renderThread = new Thread(this);
         renderThread.start();
@@ -267,6 +293,7 @@ public class MainView extends SurfaceView implements Runnable
     public void pause()
     {
         running = false;
+        game.pause();
         boolean retry = true;
         while(retry)
         {
@@ -282,6 +309,14 @@ public class MainView extends SurfaceView implements Runnable
         }
     }
 
+    /**
+     * Called to stop the game for good when the activity is destroyed.
+     */
+    public void destroy()
+    {
+        if (game != null) game.destroy();
+    }
+
     /**
      * Handles the frame based logic.
      */
@@ -291,6 +326,7 @@ public class MainView extends SurfaceView implements Runnable
         Canvas canvas = holder.lockCanvas();
         view.update(canvas);
         holder.unlockCanvasAndPost(canvas);
+        StartupTimer.firstFrame();
     }
 
     /**
@@ -388,7 +424,9 @@ public class MainView extends SurfaceView implements Runnable
      */
     private void generateBackground(int screenWidth, int screenHeight)
     {
+        long start = System.nanoTime();
         background = Bitmap.createBitmap((int) (screenWidth * (1.00f + ((Menu.LEVELS_SPACING_X_PERCENT * 31f) / (float) Menu.BACKGROUND_OFFSET_DAMPENING_MAGNITUDE))), screenHeight, Bitmap.Config.ARGB_8888);
         Utils.generateBackground(background, (int) (screenWidth * (1.00f + ((Menu.LEVELS_SPACING_X_PERCENT * 31f) / (float) Menu.BACKGROUND_OFFSET_DAMPENING_MAGNITUDE))), screenHeight);
+        StartupTimer.phase("generateBackground", start);
     }
 }
\ No newline at end of file
@@ -11,6 +11,9 @@ import android.net.Uri;
 import android.os.Bundle;
 import android.view.MotionEvent;
 
+import com.isb.lunarhex.core.BoardState;
+import com.isb.lunarhex.core.CompressedBoard;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -401,6 +404,7 @@ public class Menu implements InteractiveView
      */
     public void setSize(int screenWidth, int screenHeight)
     {
+        long start = System.nanoTime();
         // Calculate the values based on screen measurements
         TITLE_Y = Math.round(TITLE_Y_PERCENT * screenHeight);
         HAMBURGER_MENU_X = Math.round(HAMBURGER_MENU_X_PERCENT * screenWidth);
@@ -579,6 +583,7 @@ public class Menu implements InteractiveView
         {
             originalPreviewEndY.add(previewEndY.get(i));
         }
+        StartupTimer.phase("Menu.setSize", start);
     }
 
     /**
@@ -1034,37 +1039,22 @@ public class Menu implements InteractiveView
     /**
      * Updates the preview positions with the current board state of the game.
      *
-     * @param   initialBoardState - The initial board state in string format
-     * @param   currentBoardState - The current board state in string format
+     * @param   initialBoardState - The initial board state in packed format
+     * @param   currentBoardState - The current board state in packed format
      */
-    public void updatePreviewPositions(String initialBoardState, String currentBoardState)
+    public void updatePreviewPositions(long initialBoardState, long currentBoardState)
     {
-        List<Integer> previewInitialIndex = new ArrayList<Integer>();
-        List<Integer> previewCurrentIndex = new ArrayList<Integer>();
-
-        String[] initialSplit = initialBoardState.split(",");
-        int i;
-        for (i = 0; i < initialSplit.length; i++)
-        {
-            int initialValue = Integer.parseInt(initialSplit[i].split("-")[1]);
-            previewInitialIndex.add(Utils.getPreviewFromGameIndex(initialValue));
-        }
-        String[] currentSplit = currentBoardState.split(",");
-        for (i = 0; i < currentSplit.length; i++)
-        {
-            int currentValue = Integer.parseInt(currentSplit[i].split("-")[1]);
-            previewCurrentIndex.add(Utils.getPreviewFromGameIndex(currentValue));
-        }
-
         // Flip the preview board positions for moved indicies
-        for (i = 0; i < previewInitialIndex.size(); i++)
+        for (int i = 0; i < BoardState.pieceCount(initialBoardState); i++)
         {
-            float tempX = previewEndX.get(previewInitialIndex.get(i));
-            float tempY = previewEndY.get(previewInitialIndex.get(i));
-            previewEndX.set(previewInitialIndex.get(i),previewEndX.get(previewCurrentIndex.get(i)));
-            previewEndY.set(previewInitialIndex.get(i),previewEndY.get(previewCurrentIndex.get(i)));
-            previewEndX.set(previewCurrentIndex.get(i),tempX);
-            previewEndY.set(previewCurrentIndex.get(i),tempY);
+            int previewInitialIndex = Utils.getPreviewFromGameIndex(BoardState.position(initialBoardState, i));
+            int previewCurrentIndex = Utils.getPreviewFromGameIndex(BoardState.position(currentBoardState, i));
+            float tempX = previewEndX.get(previewInitialIndex);
+            float tempY = previewEndY.get(previewInitialIndex);
+            previewEndX.set(previewInitialIndex, previewEndX.get(previewCurrentIndex));
+            previewEndY.set(previewInitialIndex, previewEndY.get(previewCurrentIndex));
+            previewEndX.set(previewCurrentIndex, tempX);
+            previewEndY.set(previewCurrentIndex, tempY);
         }
     }
 
@@ -1308,15 +1298,14 @@ public class Menu implements InteractiveView
         boards = new ArrayList<List<List<Integer>>>();
         for (int level = 0; level < 30; level++)
         {
-            String uncompressedBoard = Utils.convertCompressedBoard(mainBoards.get(level));
+            long board = CompressedBoard.board(mainBoards.get(level));
 
             List<List<Integer>> levelColors = new ArrayList<List<Integer>>();
-            String[] pairs = uncompressedBoard.split(",");
-            for (int i = 0; i < pairs.length; i++)
+            for (int i = 0; i < BoardState.pieceCount(board); i++)
             {
                 List<Integer> colorCoordinates = new ArrayList<Integer>();
-                Character color = pairs[i].split("-")[0].charAt(0);
-                int index = Integer.parseInt(pairs[i].split("-")[1]);
+                char color = BoardState.COLORS.charAt(i);
+                int index = BoardState.position(board, i);
                 int x = 0;
                 int y = 0;
                 if (0 <= index && index <= 24)
@@ -0,0 +1,71 @@
+package com.isb.lunarhex;
+
+import android.util.Log;
+
+import java.util.Locale;
+
+/**
+ * The startup timer logs how long each phase of starting up takes, and the
+ * time from creating the main view to drawing its first frame. The methods
+ * are static and the class should not need to be constructed.
+ *
+ * @author Ian Baker
+ */
+public class StartupTimer
+{
+    /**
+     * Constants
+     */
+    private static final double NANOS_PER_MS = 1000000.0;
+
+    /**
+     * The time in nanoseconds the main view was created
+     */
+    private static volatile long startNanos;
+
+    /**
+     * Whether the first frame since the main view was created has been logged
+     */
+    private static volatile boolean firstFrameLogged;
+
+    /**
+     * Starts timing a start up, when the main view is created.
+     */
+    public static void start()
+    {
+        startNanos = System.nanoTime();
+        firstFrameLogged = false;
+    }
+
+    /**
+     * Logs how long a phase took.
+     *
+     * @param   phase - The name of the phase
+     * @param   phaseStartNanos - The time in nanoseconds the phase started
+     */
+    public static void phase(String phase, long phaseStartNanos)
+    {
+        Log.d("LunarHex", "Startup " + phase + ": " + millis(System.nanoTime() - phaseStartNanos));
+    }
+
+    /**
+     * Logs the time to the first frame, once per start up.
+     */
+    public static void firstFrame()
+    {
+        if (firstFrameLogged) return;
+        firstFrameLogged = true;
+        Log.d("LunarHex", "Startup time to first frame: " + millis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Formats a duration in milliseconds.
+     *
+     * @param   nanos - The duration in nanoseconds
+     * @return  The duration in milliseconds with two decimals
+     */
+    private static String millis(long nanos)
+    {
+        return String.format(Locale.US, "%.2f ms", nanos / NANOS_PER_MS);
+    }
+}